@@ -0,0 +1,66 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.BatchUnifier;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of BatchUnifier with the number of worker threads.
+ * The score is in unified problems per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(BatchUnifierBenchmark.PROBLEMS)
+public class BatchUnifierBenchmark {
+
+    static final int PROBLEMS = 100_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"8", "64"})
+    public int size;
+
+    private List<List<Equation>> problems;
+    private Unifier.Options options;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        problems = Workloads.problems(Workloads.Kind.RANDOM_REALISTIC, size, PROBLEMS, 42);
+        options = Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<UnifyResult> unifyAll() {
+        return BatchUnifier.unifyAll(problems, options, pool);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.CompiledPattern;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Term;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Unifying rule heads against ground subjects, through the generic unifier
+ * and through patterns compiled once in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(CompiledPatternBenchmark.PROBLEMS)
+public class CompiledPatternBenchmark {
+
+    static final int PROBLEMS = 1024;
+
+    @Param({"8", "64"})
+    public int size;
+
+    private Term[] subjects;
+    private Term[] patterns;
+    private CompiledPattern[] compiled;
+    private Unifier.Options options;
+
+    @Setup
+    public void setUp() {
+        List<List<Equation>> problems = Workloads.problems(Workloads.Kind.RANDOM_REALISTIC, size, PROBLEMS, 42);
+        subjects = new Term[PROBLEMS];
+        patterns = new Term[PROBLEMS];
+        compiled = new CompiledPattern[PROBLEMS];
+        for (int i = 0; i < PROBLEMS; i++) {
+            patterns[i] = problems.get(i).get(0).left();
+            subjects[i] = problems.get(i).get(0).right();
+            compiled[i] = CompiledPattern.compile(patterns[i]);
+        }
+        options = Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF);
+    }
+
+    @Benchmark
+    public void interpreted(Blackhole bh) {
+        for (int i = 0; i < PROBLEMS; i++) {
+            UnifyResult result = Unifier.unify(List.of(new Equation(patterns[i], subjects[i])), options);
+            bh.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) {
+        for (int i = 0; i < PROBLEMS; i++) {
+            bh.consume(compiled[i].unify(subjects[i]));
+        }
+    }
+}
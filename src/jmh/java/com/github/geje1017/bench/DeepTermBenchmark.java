@@ -0,0 +1,89 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Term traversals on list-shaped terms cons(c, cons(c, ... X)), shallow
+ * ones taking the recursive path and 10⁶-deep ones the explicit-stack path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+public class DeepTermBenchmark {
+
+    @Param({"16", "1000000"})
+    public int depth;
+
+    private Term list;
+    private Term copy;
+    private Term ground;
+    private Substitution binding;
+    private List<Equation> equations;
+
+    @Setup
+    public void setUp() {
+        list = list(depth, new Variable("X"));
+        copy = list(depth, new Variable("X"));
+        ground = list(depth, new Constant("nil"));
+        binding = new Substitution().extend(new Variable("X"), new Constant("nil"));
+        equations = List.of(new Equation(list, ground));
+    }
+
+    private static Term list(int depth, Term tail) {
+        Term term = tail;
+        Constant element = new Constant("c");
+        for (int i = 0; i < depth; i++) {
+            term = new Function("cons", element, term);
+        }
+        return term;
+    }
+
+    @Benchmark
+    public Term instantiate() {
+        return list.instantiate(binding);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return list.equals(copy);
+    }
+
+    @Benchmark
+    public String render() {
+        return list.toString();
+    }
+
+    @Benchmark
+    public int hashAndVariables() {
+        return list.hashCode() + list.getContainedVariables().size();
+    }
+
+    @Benchmark
+    public UnifyResult unifyUnionFind() {
+        return Unifier.unify(equations, Unifier.Engine.UNION_FIND, TraceLevel.OFF);
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of Function.instantiate on random terms, with a substitution that
+ * binds all of their variables and with one that binds none of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiateBenchmark {
+
+    @Param({"64", "4096"})
+    public int nodes;
+
+    private Term term;
+    private Substitution bindingAll;
+    private Substitution bindingNone;
+
+    @Setup
+    public void setUp() {
+        term = Workloads.randomTerm(nodes, 42);
+        Substitution sigma = new Substitution();
+        for (Variable v : term.getContainedVariables()) {
+            sigma = sigma.extend(v, new Constant("k"));
+        }
+        bindingAll = sigma;
+        bindingNone = new Substitution().extend(new Variable("UNUSED"), new Constant("k"));
+    }
+
+    @Benchmark
+    public Term instantiateAll() {
+        return term.instantiate(bindingAll);
+    }
+
+    @Benchmark
+    public Term instantiateNone() {
+        return term.instantiate(bindingNone);
+    }
+}
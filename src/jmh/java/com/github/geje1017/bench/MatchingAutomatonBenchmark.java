@@ -0,0 +1,91 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.Matcher;
+import com.github.geje1017.logic.MatchingAutomaton;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Matching subjects against a growing set of rule heads p(t1, t2, t3), where each
+ * argument is a variable or a random constant or unary term, by looping over the
+ * patterns with Matcher and with a MatchingAutomaton built in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(MatchingAutomatonBenchmark.SUBJECTS)
+public class MatchingAutomatonBenchmark {
+
+    static final int SUBJECTS = 256;
+
+    @Param({"10", "100", "1000"})
+    public int patterns;
+
+    private List<Term> heads;
+    private Term[] subjects;
+    private MatchingAutomaton automaton;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        heads = new ArrayList<>(patterns);
+        for (int i = 0; i < patterns; i++) {
+            heads.add(new Function("p", argument(random, true), argument(random, true), argument(random, true)));
+        }
+        subjects = new Term[SUBJECTS];
+        for (int i = 0; i < SUBJECTS; i++) {
+            subjects[i] = new Function("p", argument(random, false), argument(random, false), argument(random, false));
+        }
+        automaton = MatchingAutomaton.compile(heads);
+        for (Term subject : subjects) {
+            automaton.match(subject);
+        }
+    }
+
+    private static Term argument(Random random, boolean pattern) {
+        int choice = random.nextInt(pattern ? 3 : 2);
+        return switch (choice) {
+            case 0 -> new Constant("c" + random.nextInt(8));
+            case 1 -> new Function("s", new Constant("c" + random.nextInt(8)));
+            default -> new Variable("X" + random.nextInt(2));
+        };
+    }
+
+    @Benchmark
+    public void loop(Blackhole bh) {
+        for (Term subject : subjects) {
+            for (Term head : heads) {
+                bh.consume(Matcher.match(head, subject));
+            }
+        }
+    }
+
+    @Benchmark
+    public void automaton(Blackhole bh) {
+        for (Term subject : subjects) {
+            bh.consume(automaton.match(subject));
+        }
+    }
+}
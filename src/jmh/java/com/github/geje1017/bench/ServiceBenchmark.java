@@ -0,0 +1,117 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.io.TermWriter;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.service.UnificationServer;
+import com.github.geje1017.term.Equation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load test of the unification service on localhost: every benchmark thread is
+ * one client sending a random realistic problem and waiting for its answer.
+ * The sampled round-trip times give the client-side latency percentiles; the
+ * server-side percentiles are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ServiceBenchmark {
+
+    @Param({"1", "256"})
+    public int batchSize;
+
+    private UnificationServer server;
+    private ServerSocket socket;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = new UnificationServer(Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF),
+                batchSize, UnificationServer.DEFAULT_QUEUE_CAPACITY);
+        socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            try {
+                server.listen(socket);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException {
+        System.out.println("server latency " + server.latencies());
+        socket.close();
+        server.close();
+    }
+
+    /**
+     * One client connection with a fixed pool of request lines.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private Socket connection;
+        private Writer out;
+        private BufferedReader in;
+        private String[] requests;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void connect(ServiceBenchmark benchmark) throws IOException {
+            connection = new Socket(InetAddress.getLoopbackAddress(), benchmark.socket.getLocalPort());
+            connection.setTcpNoDelay(true);
+            out = new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8);
+            in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            List<List<Equation>> problems = Workloads.problems(Workloads.Kind.RANDOM_REALISTIC, 16, 1024,
+                    Thread.currentThread().threadId());
+            requests = new String[problems.size()];
+            for (int i = 0; i < requests.length; i++) {
+                StringBuilder line = new StringBuilder();
+                TermWriter.write(problems.get(i).get(0), line);
+                requests[i] = line.append('\n').toString();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws IOException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String roundTrip(Client client) throws IOException {
+        client.out.write(client.requests[client.next++ & (client.requests.length - 1)]);
+        client.out.flush();
+        return client.in.readLine();
+    }
+}
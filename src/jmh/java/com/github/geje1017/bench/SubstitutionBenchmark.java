@@ -0,0 +1,82 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building, composing and applying substitutions with many variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubstitutionBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int variables;
+
+    private Substitution chain;
+    private Substitution other;
+    private Variable[] names;
+    private Term[] values;
+    private Term wide;
+
+    @Setup
+    public void setUp() {
+        chain = Workloads.manyVariables(variables);
+        names = new Variable[variables];
+        values = new Term[variables];
+        Term[] args = new Term[variables];
+        for (int i = 0; i < variables; i++) {
+            names[i] = new Variable("X" + i);
+            values[i] = new Function("f", new Variable("X" + (i + 1)));
+            args[i] = names[i];
+        }
+        Substitution sigma = new Substitution();
+        for (int i = 0; i < variables; i++) {
+            sigma = sigma.extend(new Variable("Y" + i), new Function("g", new Variable("X" + i)));
+        }
+        other = sigma;
+        wide = new Function("w", args);
+    }
+
+    @Benchmark
+    public Substitution extend() {
+        Substitution sigma = new Substitution();
+        for (int i = 0; i < names.length; i++) {
+            sigma = sigma.extend(names[i], values[i]);
+        }
+        return sigma;
+    }
+
+    @Benchmark
+    public Substitution compose() {
+        return other.compose(chain);
+    }
+
+    @Benchmark
+    public Term apply() {
+        return chain.apply(wide);
+    }
+
+    @Benchmark
+    public Substitution normalize() {
+        return chain.normalize();
+    }
+}
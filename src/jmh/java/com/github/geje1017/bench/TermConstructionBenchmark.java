@@ -0,0 +1,71 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building term-heavy workloads: every operation rebuilds all function nodes of a
+ * random term whose functors have arity 1 to 3. Run with {@code -prof gc} to see
+ * the bytes allocated per node in {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermConstructionBenchmark {
+
+    @Param({"1000", "100000"})
+    public int nodes;
+
+    private Term template;
+
+    @Setup
+    public void setUp() {
+        template = Workloads.randomTerm(nodes, 42);
+    }
+
+    @Benchmark
+    public Term rebuild() {
+        return copy(template);
+    }
+
+    @Benchmark
+    public int traverse() {
+        return count(template);
+    }
+
+    private static Term copy(Term term) {
+        if (term instanceof Function f) {
+            Term[] args = new Term[f.getArity()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = copy(f.getArgumentOnPosition(i));
+            }
+            return new Function(f.getName(), args);
+        }
+        return term;
+    }
+
+    private static int count(Term term) {
+        int n = 1;
+        if (term instanceof Function f) {
+            for (int i = 0; i < f.getArity(); i++) {
+                n += count(f.getArgumentOnPosition(i));
+            }
+        }
+        return n;
+    }
+}
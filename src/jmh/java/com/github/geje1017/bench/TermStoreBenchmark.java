@@ -0,0 +1,62 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.TermStore;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unification on the flat TermStore: on prebuilt ids, where only bindings
+ * are written, and through the Term adapter including conversion both ways.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermStoreBenchmark {
+
+    @Param({"DEEP_CHAIN", "WIDE_ARITY", "EXPONENTIAL_SHARING", "CLASH_HEAVY", "RANDOM_REALISTIC"})
+    public Workloads.Kind kind;
+
+    @Param({"16", "256"})
+    public int size;
+
+    private List<Equation> equations;
+    private TermStore store;
+    private int left;
+    private int right;
+
+    @Setup
+    public void setUp() {
+        equations = Workloads.equations(kind, size, 42);
+        store = new TermStore();
+        left = store.add(equations.get(0).left());
+        right = store.add(equations.get(0).right());
+    }
+
+    @Benchmark
+    public boolean unifyIds() {
+        boolean unified = store.unify(left, right);
+        store.reset();
+        return unified;
+    }
+
+    @Benchmark
+    public UnifyResult unifyTerms() {
+        return TermStore.unify(equations);
+    }
+}
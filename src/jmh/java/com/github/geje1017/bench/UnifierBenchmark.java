@@ -0,0 +1,61 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a single Unifier.unify call per workload family and engine.
+ * The exponential-sharing family is capped at n = 16 for the
+ * Martelli–Montanari engine, whose solution is built as a tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnifierBenchmark {
+
+    @Param({"DEEP_CHAIN", "WIDE_ARITY", "EXPONENTIAL_SHARING", "CLASH_HEAVY", "RANDOM_REALISTIC"})
+    public Workloads.Kind kind;
+
+    @Param({"MARTELLI_MONTANARI", "UNION_FIND"})
+    public Unifier.Engine engine;
+
+    @Param({"16", "256"})
+    public int size;
+
+    @Param({"OFF", "FULL"})
+    public TraceLevel trace;
+
+    private List<Equation> equations;
+    private Unifier.Options options;
+
+    @Setup
+    public void setUp() {
+        int effectiveSize = kind == Workloads.Kind.EXPONENTIAL_SHARING && engine == Unifier.Engine.MARTELLI_MONTANARI
+                ? Math.min(size, 16) : size;
+        equations = Workloads.equations(kind, effectiveSize, 42);
+        options = Unifier.Options.DEFAULT.withEngine(engine).withTraceLevel(trace);
+    }
+
+    @Benchmark
+    public UnifyResult unify() {
+        return Unifier.unify(equations, options);
+    }
+}
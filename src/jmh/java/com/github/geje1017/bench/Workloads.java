@@ -0,0 +1,181 @@
+package com.github.geje1017.bench;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Seeded generators for reproducible unification workloads.
+ * The same seed and size always produce structurally identical terms.
+ */
+public final class Workloads {
+
+    /**
+     * The workload families used across the benchmarks.
+     */
+    public enum Kind {
+        /** f(f(...f(X)...)) = f(f(...f(a)...)) nested to the given depth. */
+        DEEP_CHAIN,
+        /** f(X1..Xn) = f(c1..cn) with the given arity. */
+        WIDE_ARITY,
+        /** f(X1..Xn) = f(g(X0,X0)..g(Xn-1,Xn-1)), whose solution is exponentially large as a tree. */
+        EXPONENTIAL_SHARING,
+        /** Two large random ground terms that differ only in their last leaf. */
+        CLASH_HEAVY,
+        /** Two random terms over a small signature that share a random skeleton. */
+        RANDOM_REALISTIC
+    }
+
+    private static final String[] FUNCTORS = {"f", "g", "h", "k"};
+
+    private Workloads() {
+    }
+
+    /**
+     * Builds one equation set of the given family.
+     * @param kind the workload family
+     * @param size the depth, arity or node budget of the generated terms
+     * @param seed the random seed
+     * @return the equations to unify
+     */
+    public static List<Equation> equations(Kind kind, int size, long seed) {
+        return switch (kind) {
+            case DEEP_CHAIN -> List.of(deepChain(size));
+            case WIDE_ARITY -> List.of(wideArity(size));
+            case EXPONENTIAL_SHARING -> List.of(exponentialSharing(size));
+            case CLASH_HEAVY -> List.of(clashHeavy(size, new Random(seed)));
+            case RANDOM_REALISTIC -> List.of(randomRealistic(size, new Random(seed)));
+        };
+    }
+
+    /**
+     * Builds many small problems of the given family with consecutive seeds.
+     * @param kind the workload family
+     * @param size the size of each problem
+     * @param count the number of problems
+     * @param seed the seed of the first problem
+     * @return the equation sets
+     */
+    public static List<List<Equation>> problems(Kind kind, int size, int count, long seed) {
+        List<List<Equation>> problems = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            problems.add(equations(kind, size, seed + i));
+        }
+        return problems;
+    }
+
+    /**
+     * Builds a substitution binding n variables, each to a term over the next variable,
+     * as produced by a long chain of eliminations.
+     * @param n the number of bindings
+     * @return the substitution {X0 ↦ f(X1), X1 ↦ f(X2), ...}
+     */
+    public static Substitution manyVariables(int n) {
+        Substitution sigma = new Substitution();
+        for (int i = 0; i < n; i++) {
+            sigma = sigma.extend(new Variable("X" + i), new Function("f", new Variable("X" + (i + 1))));
+        }
+        return sigma;
+    }
+
+    /**
+     * Builds a random non-ground term.
+     * @param nodes the approximate node budget
+     * @param seed the random seed
+     * @return the generated term
+     */
+    public static Term randomTerm(int nodes, long seed) {
+        return random(nodes, new Random(seed), 0.2);
+    }
+
+    private static Equation deepChain(int depth) {
+        Term left = new Variable("X");
+        Term right = new Constant("a");
+        for (int i = 0; i < depth; i++) {
+            left = new Function("f", left);
+            right = new Function("f", right);
+        }
+        return new Equation(left, right);
+    }
+
+    private static Equation wideArity(int arity) {
+        Term[] left = new Term[arity];
+        Term[] right = new Term[arity];
+        for (int i = 0; i < arity; i++) {
+            left[i] = new Variable("X" + i);
+            right[i] = new Constant("c" + i);
+        }
+        return new Equation(new Function("f", left), new Function("f", right));
+    }
+
+    private static Equation exponentialSharing(int n) {
+        Term[] left = new Term[n];
+        Term[] right = new Term[n];
+        for (int i = 1; i <= n; i++) {
+            Variable previous = new Variable("X" + (i - 1));
+            left[i - 1] = new Variable("X" + i);
+            right[i - 1] = new Function("g", previous, previous);
+        }
+        return new Equation(new Function("f", left), new Function("f", right));
+    }
+
+    private static Equation clashHeavy(int nodes, Random random) {
+        long seed = random.nextLong();
+        Term left = random(nodes, new Random(seed), 0.0);
+        Term right = replaceLastLeaf(random(nodes, new Random(seed), 0.0));
+        return new Equation(left, right);
+    }
+
+    private static Equation randomRealistic(int nodes, Random random) {
+        Term skeleton = random(nodes, random, 0.3);
+        return new Equation(skeleton, groundInstance(skeleton, random, new HashMap<>()));
+    }
+
+    private static Term random(int nodes, Random random, double variableRatio) {
+        if (nodes <= 1) {
+            return random.nextDouble() < variableRatio
+                    ? new Variable("V" + random.nextInt(Math.max(1, nodes * 8)))
+                    : new Constant("c" + random.nextInt(4));
+        }
+        int arity = 1 + random.nextInt(3);
+        int budget = (nodes - 1) / arity;
+        Term[] args = new Term[arity];
+        for (int i = 0; i < arity; i++) {
+            args[i] = random(Math.max(1, budget), random, variableRatio);
+        }
+        return new Function(FUNCTORS[random.nextInt(FUNCTORS.length)], args);
+    }
+
+    private static Term groundInstance(Term term, Random random, Map<Variable, Term> chosen) {
+        if (term instanceof Variable v) {
+            return chosen.computeIfAbsent(v, ignored -> random(3, random, 0.0));
+        } else if (term instanceof Function f) {
+            Term[] args = new Term[f.getArity()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = groundInstance(f.getArgumentOnPosition(i), random, chosen);
+            }
+            return new Function(f.getName(), args);
+        }
+        return term;
+    }
+
+    private static Term replaceLastLeaf(Term term) {
+        if (term instanceof Function f) {
+            Term[] args = new Term[f.getArity()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = f.getArgumentOnPosition(i);
+            }
+            args[args.length - 1] = replaceLastLeaf(args[args.length - 1]);
+            return new Function(f.getName(), args);
+        }
+        return new Constant("clash");
+    }
+}
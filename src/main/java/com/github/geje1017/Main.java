@@ -1,12 +1,140 @@
 package com.github.geje1017;
 
+import com.github.geje1017.io.TermReader;
+import com.github.geje1017.io.TermWriter;
+import com.github.geje1017.logic.TraceLevel;
 import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.service.UnificationServer;
 import com.github.geje1017.term.*;
 
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
+/**
+ * Command-line entry point: unifies the equation sets of a file (or of
+ * standard input), one set per line, and prints each result.
+ * With {@code --serve} the equation sets of standard input are answered by a
+ * {@link UnificationServer} instead, and with {@code --port=N} the server listens
+ * on that localhost port until the process is stopped. Latency percentiles of the
+ * service are printed to standard error on exit. A malformed line is answered
+ * with its positioned syntax error and the following lines are still processed.
+ * <p>
+ * Usage: {@code Main [--engine=MARTELLI_MONTANARI|UNION_FIND] [--trace=OFF|RULES|FULL]
+ * [--serve | --port=N] [--batch=N] [file]}
+ */
 public class Main {
-    public static void main(String[] args) {
-        // TODO
+
+    private static final String USAGE = "Usage: Main [--engine=MARTELLI_MONTANARI|UNION_FIND] "
+            + "[--trace=OFF|RULES|FULL] [--serve | --port=N] [--batch=N] [file]";
+
+    /**
+     * Reads, unifies and prints the equation sets.
+     * @param args the options and the optional input file
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public static void main(String[] args) throws IOException {
+        Unifier.Options options = Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF);
+        Path input = null;
+        boolean serve = false;
+        int port = -1;
+        int batchSize = UnificationServer.DEFAULT_BATCH_SIZE;
+        boolean batched = false;
+        for (String arg : args) {
+            try {
+                if (arg.startsWith("--engine=")) {
+                    options = options.withEngine(Unifier.Engine.valueOf(arg.substring(9).toUpperCase()));
+                } else if (arg.startsWith("--trace=")) {
+                    options = options.withTraceLevel(TraceLevel.valueOf(arg.substring(8).toUpperCase()));
+                } else if (arg.equals("--serve")) {
+                    serve = true;
+                } else if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(arg.substring(7));
+                } else if (arg.startsWith("--batch=")) {
+                    batchSize = Integer.parseInt(arg.substring(8));
+                    batched = true;
+                } else if (arg.startsWith("--")) {
+                    usage("Unknown option " + arg);
+                    return;
+                } else if (input != null) {
+                    usage("More than one input file: " + arg);
+                    return;
+                } else {
+                    input = Path.of(arg);
+                }
+            } catch (IllegalArgumentException e) {
+                usage("Invalid value in " + arg);
+                return;
+            }
+        }
+        if (batchSize <= 0) {
+            usage("The batch size must be positive: " + batchSize);
+            return;
+        }
+        if (batched && !serve && port < 0) {
+            usage("--batch requires --serve or --port");
+            return;
+        }
+        if (serve || port >= 0) {
+            serve(new UnificationServer(options, batchSize, UnificationServer.DEFAULT_QUEUE_CAPACITY), port);
+            return;
+        }
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (TermReader reader = input == null
+                ? new TermReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : TermReader.open(input)) {
+            while (true) {
+                List<Equation> equations;
+                try {
+                    equations = reader.nextEquations();
+                } catch (TermReader.SyntaxException e) {
+                    out.write(e.getMessage());
+                    out.write('\n');
+                    reader.skipLine();
+                    continue;
+                }
+                if (equations == null) {
+                    break;
+                }
+                TermWriter.write(Unifier.unify(equations, options), out);
+            }
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Reports a malformed command line with the usage text and sets exit status 2.
+     * @param problem the description of the error
+     */
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Runs the service on standard input and output, or on a localhost port.
+     * @param server the service answering the requests
+     * @param port the port to listen on, or a negative value for standard input
+     * @throws IOException if reading or writing fails
+     */
+    private static void serve(UnificationServer server, int port) throws IOException {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println("latency " + server.latencies())));
+        try (server) {
+            if (port < 0) {
+                server.serve(System.in, System.out);
+            } else {
+                try (ServerSocket socket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+                    server.listen(socket);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
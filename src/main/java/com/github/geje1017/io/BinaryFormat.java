@@ -0,0 +1,33 @@
+package com.github.geje1017.io;
+
+/**
+ * The tags of the binary term format shared by {@link TermEncoder} and {@link TermDecoder}.
+ * <p>
+ * A stream starts with the magic bytes {@code TRM} and a version byte,
+ * followed by records, each introduced by a record tag. Integers are
+ * unsigned LEB128 varints. A symbol is written as varint 0 followed by its
+ * UTF-8 length and bytes when it first occurs, and as its table index plus
+ * one afterwards. Terms are written in preorder; a function that was
+ * already written is replaced by a back-reference to its position in the
+ * order in which functions were completed.
+ */
+abstract class BinaryFormat {
+
+    static final byte[] MAGIC = {'T', 'R', 'M'};
+    static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int TERM = 1;
+    static final int EQUATION = 2;
+    static final int EQUATIONS = 3;
+    static final int SUBSTITUTION = 4;
+    static final int RESULT = 5;
+    static final int RESET = 6;
+
+    static final int VARIABLE_NODE = 0;
+    static final int CONSTANT_NODE = 1;
+    static final int FUNCTION_NODE = 2;
+    static final int SHARED_NODE = 3;
+
+    static final int BUFFER_SIZE = 1 << 16;
+}
@@ -0,0 +1,487 @@
+package com.github.geje1017.io;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the binary format written by {@link TermEncoder}. Back-references
+ * are resolved to the same objects, so the decoded terms share subterms
+ * exactly as the encoded ones did, and every variable and constant symbol
+ * is decoded to a single object.
+ * <p>
+ * Input is read directly from a buffer, such as a memory-mapped file, or
+ * streamed from a channel through a fixed buffer. Counts and lengths read
+ * from the input only size buffers up to {@link #INITIAL_CAPACITY}, which then
+ * grow with the data actually read, so corrupt input ends in an IOException
+ * instead of an OutOfMemoryError. This class is not thread-safe.
+ */
+public final class TermDecoder implements Closeable {
+
+    /**
+     * The largest capacity allocated up front for a count read from the input.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * A function whose arguments are still being decoded.
+     */
+    private static final class Frame {
+
+        private final String name;
+        private final int arity;
+        private Term[] arguments;
+        private int filled;
+
+        Frame(String name, int arity) {
+            this.name = name;
+            this.arity = arity;
+            this.arguments = new Term[Math.min(arity, INITIAL_CAPACITY)];
+        }
+
+        /**
+         * Stores the next decoded argument.
+         * @param argument the argument
+         * @return true if all arguments are present
+         */
+        boolean accept(Term argument) {
+            if (filled == arguments.length) {
+                arguments = Arrays.copyOf(arguments, (int) Math.min(arity, 2L * filled));
+            }
+            arguments[filled++] = argument;
+            return filled == arity;
+        }
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final List<String> symbols = new ArrayList<>();
+    private final List<Variable> variables = new ArrayList<>();
+    private final List<Constant> constants = new ArrayList<>();
+    private final List<Term> shared = new ArrayList<>();
+    private final Deque<Frame> open = new ArrayDeque<>();
+    private int nextRecord = -1;
+
+    /**
+     * Constructs a decoder reading the buffer from its position on, without copying it.
+     * @param source the encoded bytes
+     * @throws IOException if the header is missing or unsupported
+     */
+    public TermDecoder(ByteBuffer source) throws IOException {
+        this(null, source);
+    }
+
+    /**
+     * Constructs a decoder that streams from a channel.
+     * @param channel the source of the encoded bytes
+     * @throws IOException if the header cannot be read or is unsupported
+     */
+    public TermDecoder(ReadableByteChannel channel) throws IOException {
+        this(channel, ByteBuffer.allocateDirect(BinaryFormat.BUFFER_SIZE).limit(0));
+    }
+
+    private TermDecoder(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        for (byte b : BinaryFormat.MAGIC) {
+            if (readByte() != b) {
+                throw new StreamCorruptedException("Not a binary term stream");
+            }
+        }
+        int version = readByte();
+        if (version != BinaryFormat.VERSION) {
+            throw new StreamCorruptedException("Unsupported format version " + version);
+        }
+    }
+
+    /**
+     * Opens a file, memory-mapping it if it fits into a single buffer.
+     * @param path the file to read
+     * @return a decoder positioned after the header
+     * @throws IOException if the file cannot be opened or has no valid header
+     */
+    public static TermDecoder open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return new TermDecoder(channel);
+            }
+            try (channel) {
+                return new TermDecoder(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether another record follows.
+     * @return false at the end marker or the end of the input
+     * @throws IOException if reading fails
+     */
+    public boolean hasNext() throws IOException {
+        return peekRecord() != BinaryFormat.END;
+    }
+
+    /**
+     * Reads a term record.
+     * @return the decoded term
+     * @throws IOException if reading fails or the next record is not a term
+     */
+    public Term readTerm() throws IOException {
+        expect(BinaryFormat.TERM, "term");
+        return term();
+    }
+
+    /**
+     * Reads an equation record.
+     * @return the decoded equation
+     * @throws IOException if reading fails or the next record is not an equation
+     */
+    public Equation readEquation() throws IOException {
+        expect(BinaryFormat.EQUATION, "equation");
+        return new Equation(term(), term());
+    }
+
+    /**
+     * Reads an equation set record.
+     * @return the decoded equations
+     * @throws IOException if reading fails or the next record is not an equation set
+     */
+    public List<Equation> readEquations() throws IOException {
+        expect(BinaryFormat.EQUATIONS, "equation set");
+        return equations();
+    }
+
+    /**
+     * Reads a substitution record.
+     * @return the decoded substitution
+     * @throws IOException if reading fails or the next record is not a substitution
+     */
+    public Substitution readSubstitution() throws IOException {
+        expect(BinaryFormat.SUBSTITUTION, "substitution");
+        return substitution();
+    }
+
+    /**
+     * Reads a unification result record. The trace is restored as rendered
+     * lines; its structured events are not part of the format.
+     * @return the decoded result
+     * @throws IOException if reading fails or the next record is not a result
+     */
+    public UnifyResult readResult() throws IOException {
+        expect(BinaryFormat.RESULT, "result");
+        return result();
+    }
+
+    /**
+     * Reads the next record of any kind.
+     * @return a Term, Equation, List of Equations, Substitution or UnifyResult
+     * @throws IOException if reading fails
+     * @throws NoSuchElementException if no record follows
+     */
+    public Object readNext() throws IOException {
+        int record = peekRecord();
+        nextRecord = -1;
+        return switch (record) {
+            case BinaryFormat.TERM -> term();
+            case BinaryFormat.EQUATION -> new Equation(term(), term());
+            case BinaryFormat.EQUATIONS -> equations();
+            case BinaryFormat.SUBSTITUTION -> substitution();
+            case BinaryFormat.RESULT -> result();
+            case BinaryFormat.END -> throw new NoSuchElementException();
+            default -> throw new StreamCorruptedException("Unknown record tag " + record);
+        };
+    }
+
+    /**
+     * Streams the remaining records lazily.
+     * I/O errors are rethrown as {@link UncheckedIOException}.
+     * @return a sequential stream of decoded records
+     */
+    public Stream<Object> records() {
+        Iterator<Object> iterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return TermDecoder.this.hasNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Object next() {
+                try {
+                    return readNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Closes the underlying channel, if any.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the tag of the next record, consuming and applying reset markers.
+     * @return the record tag, END at the end of the input
+     * @throws IOException if reading fails
+     */
+    private int peekRecord() throws IOException {
+        while (nextRecord < 0) {
+            if (!buffer.hasRemaining() && !fill()) {
+                nextRecord = BinaryFormat.END;
+            } else {
+                nextRecord = buffer.get() & 0xFF;
+            }
+            if (nextRecord == BinaryFormat.RESET) {
+                symbols.clear();
+                variables.clear();
+                constants.clear();
+                shared.clear();
+                nextRecord = -1;
+            }
+        }
+        return nextRecord;
+    }
+
+    private void expect(int record, String kind) throws IOException {
+        int actual = peekRecord();
+        if (actual != record) {
+            throw new StreamCorruptedException("Expected a " + kind + " record but found tag " + actual);
+        }
+        nextRecord = -1;
+    }
+
+    private List<Equation> equations() throws IOException {
+        int count = readVarint();
+        List<Equation> equations = new ArrayList<>(Math.min(count, INITIAL_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            equations.add(new Equation(term(), term()));
+        }
+        return equations;
+    }
+
+    /**
+     * Reads the bindings of a substitution and rebuilds them as one flat layer,
+     * so substitutions that are not idempotent, such as matchers, decode unchanged.
+     * @return the decoded substitution
+     * @throws IOException if reading fails
+     */
+    private Substitution substitution() throws IOException {
+        int count = readVarint();
+        Map<Variable, Term> bindings = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Variable v = variable(symbol());
+            bindings.put(v, term());
+        }
+        return Substitution.of(bindings);
+    }
+
+    private UnifyResult result() throws IOException {
+        boolean success = readByte() != 0;
+        Substitution substitution = substitution();
+        int count = readVarint();
+        List<String> trace = new ArrayList<>(Math.min(count, INITIAL_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            trace.add(readString());
+        }
+        return success ? UnifyResult.success(substitution, trace) : UnifyResult.failure(trace);
+    }
+
+    /**
+     * Decodes one term with an explicit stack of open functions.
+     * @return the decoded term
+     * @throws IOException if reading fails or the encoding is invalid
+     */
+    private Term term() throws IOException {
+        open.clear();
+        while (true) {
+            int tag = readByte();
+            Term value;
+            switch (tag) {
+                case BinaryFormat.VARIABLE_NODE -> value = variable(symbol());
+                case BinaryFormat.CONSTANT_NODE -> value = constant(symbol());
+                case BinaryFormat.SHARED_NODE -> {
+                    int index = readVarint();
+                    if (index >= shared.size()) {
+                        throw new StreamCorruptedException("Dangling back-reference " + index);
+                    }
+                    value = shared.get(index);
+                }
+                case BinaryFormat.FUNCTION_NODE -> {
+                    String name = symbols.get(symbol());
+                    int arity = readVarint();
+                    if (arity > 0) {
+                        open.push(new Frame(name, arity));
+                        continue;
+                    }
+                    value = new Function(name);
+                    shared.add(value);
+                }
+                default -> throw new StreamCorruptedException("Unknown node tag " + tag);
+            }
+            while (true) {
+                Frame frame = open.peek();
+                if (frame == null) {
+                    return value;
+                }
+                if (!frame.accept(value)) {
+                    break;
+                }
+                open.pop();
+                value = new Function(frame.name, frame.arguments);
+                shared.add(value);
+            }
+        }
+    }
+
+    private Variable variable(int symbol) {
+        Variable v = variables.get(symbol);
+        if (v == null) {
+            v = new Variable(symbols.get(symbol));
+            variables.set(symbol, v);
+        }
+        return v;
+    }
+
+    private Constant constant(int symbol) {
+        Constant c = constants.get(symbol);
+        if (c == null) {
+            c = new Constant(symbols.get(symbol));
+            constants.set(symbol, c);
+        }
+        return c;
+    }
+
+    /**
+     * Reads a symbol reference, adding the symbol to the table on its first occurrence.
+     * @return the index of the symbol
+     * @throws IOException if reading fails or the reference is invalid
+     */
+    private int symbol() throws IOException {
+        int reference = readVarint();
+        if (reference == 0) {
+            symbols.add(readString());
+            variables.add(null);
+            constants.add(null);
+            return symbols.size() - 1;
+        }
+        if (reference > symbols.size()) {
+            throw new StreamCorruptedException("Unknown symbol " + (reference - 1));
+        }
+        return reference - 1;
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string into a buffer that grows with the bytes read.
+     * @return the string
+     * @throws IOException if reading fails or the input ends early
+     */
+    private String readString() throws IOException {
+        int length = readVarint();
+        byte[] bytes = new byte[Math.min(length, INITIAL_CAPACITY)];
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining() && !fill()) {
+                throw new EOFException();
+            }
+            if (offset == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * offset));
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, chunk);
+            offset += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a non-negative int in base-128 groups, least significant first.
+     * The fifth group may only hold the three bits left of a non-negative int.
+     * @return the value
+     * @throws IOException if reading fails or the varint is longer or larger than an int
+     */
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 28; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        int b = readByte();
+        if ((b & ~0x07) != 0) {
+            throw new StreamCorruptedException("Malformed varint");
+        }
+        return value | b << 28;
+    }
+
+    private int readByte() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            throw new EOFException();
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Refills the buffer from the channel.
+     * @return false if the buffer is a plain source or the channel is exhausted
+     * @throws IOException if reading fails
+     */
+    private boolean fill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+}
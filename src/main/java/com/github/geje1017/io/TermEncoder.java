@@ -0,0 +1,292 @@
+package com.github.geje1017.io;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes terms, equations, substitutions and unification results in the
+ * compact binary format described in {@link BinaryFormat}, to be read back
+ * by {@link TermDecoder}. Symbols are written once, functions shared by
+ * identity are written once and referenced afterwards, so DAG-shaped terms
+ * stay linear in size.
+ * <p>
+ * Records are encoded into a direct buffer that is drained to the channel
+ * whenever it fills up, so arbitrarily many records can be streamed. The
+ * symbol and sharing tables span the whole stream; {@link #reset()} clears
+ * them to bound memory on very long streams. This class is not thread-safe.
+ */
+public final class TermEncoder implements Closeable, Flushable {
+
+    /**
+     * Marks the point where all arguments of a function have been written.
+     * @param function the completed function
+     */
+    private record Completed(Function function) {}
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> symbols = new HashMap<>();
+    private final Map<Function, Integer> shared = new IdentityHashMap<>();
+    private final Deque<Object> pending = new ArrayDeque<>();
+
+    /**
+     * Constructs an encoder that streams to a channel and writes the header.
+     * @param channel the destination
+     * @throws IOException if writing the header fails
+     */
+    public TermEncoder(WritableByteChannel channel) throws IOException {
+        this(channel, ByteBuffer.allocateDirect(BinaryFormat.BUFFER_SIZE));
+    }
+
+    /**
+     * Constructs an encoder that writes into the given buffer only.
+     * Writing more than the buffer holds throws a {@link BufferOverflowException}.
+     * @param target the buffer receiving the encoded bytes from its position on
+     * @throws IOException never, as no channel is involved
+     */
+    public TermEncoder(ByteBuffer target) throws IOException {
+        this(null, target);
+    }
+
+    private TermEncoder(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        for (byte b : BinaryFormat.MAGIC) {
+            writeByte(b);
+        }
+        writeByte(BinaryFormat.VERSION);
+    }
+
+    /**
+     * Creates or truncates a file and opens an encoder on it.
+     * @param path the file to write
+     * @return an encoder positioned after the header
+     * @throws IOException if the file cannot be opened
+     */
+    public static TermEncoder create(Path path) throws IOException {
+        return new TermEncoder(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Writes a term record.
+     * @param term the term to write
+     * @throws IOException if draining the buffer fails
+     */
+    public void writeTerm(Term term) throws IOException {
+        writeByte(BinaryFormat.TERM);
+        term(term);
+    }
+
+    /**
+     * Writes an equation record.
+     * @param equation the equation to write
+     * @throws IOException if draining the buffer fails
+     */
+    public void writeEquation(Equation equation) throws IOException {
+        writeByte(BinaryFormat.EQUATION);
+        term(equation.left());
+        term(equation.right());
+    }
+
+    /**
+     * Writes an equation set as a single record.
+     * @param equations the equations to write
+     * @throws IOException if draining the buffer fails
+     */
+    public void writeEquations(Collection<Equation> equations) throws IOException {
+        writeByte(BinaryFormat.EQUATIONS);
+        writeVarint(equations.size());
+        for (Equation eq : equations) {
+            term(eq.left());
+            term(eq.right());
+        }
+    }
+
+    /**
+     * Writes a substitution record in idempotent form.
+     * @param substitution the substitution to write
+     * @throws IOException if draining the buffer fails
+     */
+    public void writeSubstitution(Substitution substitution) throws IOException {
+        writeByte(BinaryFormat.SUBSTITUTION);
+        substitution(substitution);
+    }
+
+    /**
+     * Writes a unification result record with its rendered trace.
+     * @param result the result to write
+     * @throws IOException if draining the buffer fails
+     */
+    public void writeResult(UnifyResult result) throws IOException {
+        writeByte(BinaryFormat.RESULT);
+        writeByte(result.isSuccess() ? 1 : 0);
+        substitution(result.getSubstitution());
+        List<String> trace = result.getTrace();
+        writeVarint(trace.size());
+        for (String line : trace) {
+            writeString(line);
+        }
+    }
+
+    /**
+     * Forgets all symbols and shared functions written so far, on both sides
+     * of the stream. Later records no longer refer to earlier ones.
+     * @throws IOException if draining the buffer fails
+     */
+    public void reset() throws IOException {
+        writeByte(BinaryFormat.RESET);
+        symbols.clear();
+        shared.clear();
+    }
+
+    /**
+     * Drains the buffered bytes to the channel.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (channel != null) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes the end marker, drains the buffer and closes the channel.
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        writeByte(BinaryFormat.END);
+        if (channel != null) {
+            try {
+                drain();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void substitution(Substitution substitution) throws IOException {
+        var entries = substitution.entrySet();
+        writeVarint(entries.size());
+        for (Map.Entry<Variable, Term> entry : entries) {
+            symbol(entry.getKey().toString());
+            term(entry.getValue());
+        }
+    }
+
+    /**
+     * Writes a term in preorder with an explicit stack, replacing functions
+     * written before by back-references.
+     * @param root the term to write
+     * @throws IOException if draining the buffer fails
+     */
+    private void term(Term root) throws IOException {
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Object item = pending.pop();
+            if (item instanceof Completed completed) {
+                shared.put(completed.function(), shared.size());
+            } else if (item instanceof Variable v) {
+                writeByte(BinaryFormat.VARIABLE_NODE);
+                symbol(v.toString());
+            } else if (item instanceof Constant c) {
+                writeByte(BinaryFormat.CONSTANT_NODE);
+                symbol(c.toString());
+            } else {
+                Function f = (Function) item;
+                Integer index = shared.get(f);
+                if (index != null) {
+                    writeByte(BinaryFormat.SHARED_NODE);
+                    writeVarint(index);
+                    continue;
+                }
+                writeByte(BinaryFormat.FUNCTION_NODE);
+                symbol(f.getName());
+                writeVarint(f.getArity());
+                pending.push(new Completed(f));
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    pending.push(f.getArgumentOnPosition(i));
+                }
+            }
+        }
+    }
+
+    private void symbol(String name) throws IOException {
+        Integer index = symbols.get(name);
+        if (index != null) {
+            writeVarint(index + 1);
+            return;
+        }
+        symbols.put(name, symbols.size());
+        writeVarint(0);
+        writeString(name);
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drainOrOverflow();
+            }
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drainOrOverflow();
+        }
+        buffer.put((byte) b);
+    }
+
+    private void drainOrOverflow() throws IOException {
+        if (channel == null) {
+            throw new BufferOverflowException();
+        }
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
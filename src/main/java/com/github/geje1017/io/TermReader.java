@@ -0,0 +1,362 @@
+package com.github.geje1017.io;
+
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A hand-written streaming parser for the notation produced by
+ * {@code toString()}: terms like {@code f(g(X),a)}, equations {@code l = r}
+ * (also {@code l ≐ r}), and one equation set per line with equations
+ * separated by {@code ,} or {@code ;}. Names starting with an upper-case
+ * letter or an underscore are variables, such as the fresh variable {@code _G1},
+ * other names are constants unless followed by an argument list. Blank lines and lines starting with {@code #} are skipped.
+ * <p>
+ * Input is decoded chunk by chunk into a fixed buffer, so files of any size
+ * are read without being loaded as a whole, and terms are parsed with an
+ * explicit stack, so nesting depth is not limited by the call stack.
+ * This class is not thread-safe.
+ */
+public final class TermReader implements Closeable {
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Thrown if the input does not follow the term notation.
+     */
+    public static final class SyntaxException extends IllegalArgumentException {
+
+        /**
+         * Constructs a syntax error at the given position.
+         * @param message what was expected
+         * @param line the one-based line number
+         * @param column the one-based column number
+         */
+        public SyntaxException(String message, long line, long column) {
+            super("Syntax error at line " + line + ", column " + column + ": " + message);
+        }
+    }
+
+    /**
+     * A function whose arguments are still being parsed.
+     */
+    private static final class Frame {
+
+        private final String name;
+        private final List<Term> arguments = new ArrayList<>();
+
+        Frame(String name) {
+            this.name = name;
+        }
+    }
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder name = new StringBuilder();
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long column = 1;
+
+    /**
+     * Constructs a parser reading from the given character stream.
+     * @param in the source of the text
+     */
+    public TermReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Opens a UTF-8 file for streaming through a file channel.
+     * @param path the file to read
+     * @return a parser positioned at the start of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static TermReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new TermReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE));
+    }
+
+    /**
+     * Parses a single term.
+     * @param text the term in toString() notation
+     * @return the parsed term
+     * @throws SyntaxException if the text is not exactly one term
+     */
+    public static Term parseTerm(CharSequence text) {
+        try (TermReader reader = new TermReader(new StringReader(text.toString()))) {
+            Term term = reader.term();
+            reader.skipSpaces();
+            if (reader.peek() != EOF) {
+                throw reader.error("end of input");
+            }
+            return term;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a single equation set.
+     * @param text the equations of one line, separated by ',' or ';'
+     * @return the parsed equations
+     * @throws SyntaxException if the text is not exactly one equation set
+     */
+    public static List<Equation> parseEquations(CharSequence text) {
+        try (TermReader reader = new TermReader(new StringReader(text.toString()))) {
+            List<Equation> equations = reader.nextEquations();
+            if (equations == null || reader.nextEquations() != null) {
+                throw reader.error("exactly one equation set");
+            }
+            return equations;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the equation set on the next non-blank, non-comment line.
+     * @return the equations, or null at the end of the input
+     * @throws IOException if reading fails
+     * @throws SyntaxException if the line is malformed
+     */
+    public List<Equation> nextEquations() throws IOException {
+        while (true) {
+            skipSpaces();
+            int c = peek();
+            if (c == EOF) {
+                return null;
+            } else if (c == '\n') {
+                next();
+            } else if (c == '#') {
+                while (c != '\n' && c != EOF) {
+                    next();
+                    c = peek();
+                }
+            } else {
+                break;
+            }
+        }
+        List<Equation> equations = new ArrayList<>();
+        while (true) {
+            Term left = term();
+            skipSpaces();
+            int c = peek();
+            if (c != '=' && c != '≐') {
+                throw error("'=' between the sides of an equation");
+            }
+            next();
+            Term right = term();
+            equations.add(new Equation(left, right));
+            skipSpaces();
+            c = peek();
+            if (c == ',' || c == ';') {
+                next();
+            } else if (c == '\n' || c == EOF) {
+                return equations;
+            } else {
+                throw error("',' or the end of the line after an equation");
+            }
+        }
+    }
+
+    /**
+     * Discards the rest of the current line, so that reading can continue with
+     * the next equation set after a {@link SyntaxException}. A syntax error is
+     * always reported before the line break of the malformed line is consumed.
+     * @throws IOException if reading fails
+     */
+    public void skipLine() throws IOException {
+        int c = next();
+        while (c != '\n' && c != EOF) {
+            c = next();
+        }
+    }
+
+    /**
+     * Streams the remaining equation sets lazily, one per line.
+     * I/O errors are rethrown as {@link UncheckedIOException}.
+     * @return a sequential stream of equation sets
+     */
+    public Stream<List<Equation>> equationSets() {
+        Iterator<List<Equation>> iterator = new Iterator<>() {
+            private List<Equation> pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending == null) {
+                    try {
+                        pending = nextEquations();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return pending != null;
+            }
+
+            @Override
+            public List<Equation> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Equation> result = pending;
+                pending = null;
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Parses one term starting at the current position.
+     * @return the parsed term
+     * @throws IOException if reading fails
+     */
+    private Term term() throws IOException {
+        Deque<Frame> open = new ArrayDeque<>();
+        while (true) {
+            skipSpaces();
+            String symbol = name();
+            skipSpaces();
+            Term result;
+            if (peek() == '(') {
+                next();
+                skipSpaces();
+                if (peek() != ')') {
+                    open.push(new Frame(symbol));
+                    continue;
+                }
+                next();
+                result = new Function(symbol);
+            } else if (Character.isUpperCase(symbol.charAt(0)) || symbol.charAt(0) == '_') {
+                result = new Variable(symbol);
+            } else {
+                result = new Constant(symbol);
+            }
+            while (true) {
+                if (open.isEmpty()) {
+                    return result;
+                }
+                Frame frame = open.peek();
+                frame.arguments.add(result);
+                skipSpaces();
+                int c = peek();
+                if (c != ',' && c != ')') {
+                    throw error("',' or ')' in the arguments of " + frame.name);
+                }
+                next();
+                if (c == ',') {
+                    break;
+                }
+                open.pop();
+                result = new Function(frame.name, frame.arguments.toArray(new Term[0]));
+            }
+        }
+    }
+
+    /**
+     * Reads a name up to the next delimiter.
+     * @return the name
+     * @throws IOException if reading fails
+     */
+    private String name() throws IOException {
+        name.setLength(0);
+        int c = peek();
+        while (c != EOF && !isDelimiter((char) c)) {
+            name.append((char) next());
+            c = peek();
+        }
+        if (name.isEmpty()) {
+            throw error("a variable, constant or function name");
+        }
+        return name.toString();
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')' || c == ',' || c == ';' || c == '=' || c == '≐';
+    }
+
+    /**
+     * Skips spaces within the current line.
+     * @throws IOException if reading fails
+     */
+    private void skipSpaces() throws IOException {
+        int c = peek();
+        while (c != EOF && c != '\n' && Character.isWhitespace(c)) {
+            next();
+            c = peek();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private int next() throws IOException {
+        int c = peek();
+        if (c == EOF) {
+            return EOF;
+        }
+        position++;
+        if (c == '\n') {
+            line++;
+            column = 1;
+        } else {
+            column++;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private SyntaxException error(String expected) {
+        return new SyntaxException("expected " + expected, line, column);
+    }
+
+    /**
+     * Closes the underlying character stream.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
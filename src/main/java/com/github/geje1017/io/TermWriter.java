@@ -0,0 +1,116 @@
+package com.github.geje1017.io;
+
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+/**
+ * Provides static methods to write terms, equations, substitutions and
+ * unification results to an {@link Appendable} in the same notation as
+ * their {@code toString()} methods, which {@link TermReader} parses back.
+ * Names are appended directly, so no intermediate strings are built, and
+ * terms are written with an explicit stack regardless of their depth.
+ */
+public abstract class TermWriter {
+
+    /**
+     * Writes a term like f(g(X),a).
+     * @param term the term to write
+     * @param out the destination
+     * @throws IOException if appending fails
+     */
+    public static void write(Term term, Appendable out) throws IOException {
+        if (!(term instanceof Function)) {
+            out.append(term.toString());
+            return;
+        }
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(term);
+        while (!pending.isEmpty()) {
+            Object item = pending.pop();
+            if (item instanceof Function f) {
+                out.append(f.getName()).append('(');
+                pending.push(")");
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    pending.push(f.getArgumentOnPosition(i));
+                    if (i > 0) {
+                        pending.push(",");
+                    }
+                }
+            } else {
+                out.append(item.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes an equation like l = r.
+     * @param equation the equation to write
+     * @param out the destination
+     * @throws IOException if appending fails
+     */
+    public static void write(Equation equation, Appendable out) throws IOException {
+        write(equation.left(), out);
+        out.append(" = ");
+        write(equation.right(), out);
+    }
+
+    /**
+     * Writes a substitution like {X↦a, Y↦f(Z)}.
+     * @param substitution the substitution to write
+     * @param out the destination
+     * @throws IOException if appending fails
+     */
+    public static void write(Substitution substitution, Appendable out) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<Variable, Term> entry : substitution.entrySet()) {
+            if (!first) {
+                out.append(", ");
+            }
+            first = false;
+            out.append(entry.getKey().toString()).append('↦');
+            write(entry.getValue(), out);
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes a unification result in the format of {@link UnifyResult#toString()}.
+     * @param result the result to write
+     * @param out the destination
+     * @throws IOException if appending fails
+     */
+    public static void write(UnifyResult result, Appendable out) throws IOException {
+        out.append("Unification ").append(result.isSuccess() ? "SUCCEEDED" : "FAILED").append('\n');
+        out.append("Substitution: ");
+        write(result.getSubstitution(), out);
+        out.append("\nTrace:\n");
+        for (String line : result.getTrace()) {
+            out.append("  - ").append(line).append('\n');
+        }
+    }
+
+    /**
+     * Renders a term to a string with a single builder.
+     * @param term the term to render
+     * @return the same text as term.toString()
+     */
+    public static String toString(Term term) {
+        StringBuilder sb = new StringBuilder(Math.min(term.size(), 1 << 20) * 2);
+        try {
+            write(term, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides static methods for anti-unification: computing the least general
+ * generalization g of terms, such that every input is an instance of g and
+ * every other common generalization is more general than g.
+ * <p>
+ * Equal subterms are kept, functions with the same name and arity are
+ * generalized argument-wise, and every other disagreement pair is replaced
+ * by a generalization variable. The same pair always yields the same
+ * variable. Results are memoized per pair of function objects, so inputs
+ * with shared subterms are processed in time linear in their DAG size.
+ * Generalization variables are {@link Variable#fresh() fresh}, so results
+ * of independent calls never share variables.
+ */
+public abstract class AntiUnifier {
+
+    /**
+     * A generalization with the substitutions that instantiate it to the inputs.
+     * @param term the least general generalization
+     * @param left the substitution σ with σ(term) = left input
+     * @param right the substitution τ with τ(term) = right input
+     */
+    public record Generalization(Term term, Substitution left, Substitution right) {}
+
+    /**
+     * Computes the least general generalization of two terms.
+     * @param left the first term
+     * @param right the second term
+     * @return the generalization
+     */
+    public static Term generalize(Term left, Term right) {
+        return new Run().generalize(left, right);
+    }
+
+    /**
+     * Computes the least general generalization of two terms together with
+     * the substitutions mapping it back to each input.
+     * @param left the first term
+     * @param right the second term
+     * @return the generalization and its two instantiating substitutions
+     */
+    public static Generalization antiUnify(Term left, Term right) {
+        Run run = new Run();
+        Term term = run.generalize(left, right);
+        return new Generalization(term, Substitution.of(run.left), Substitution.of(run.right));
+    }
+
+    /**
+     * Computes the least general generalization of many terms on the common pool.
+     * @param terms the terms to generalize, at least one
+     * @return the generalization of all terms
+     * @throws IllegalArgumentException if no term is given
+     */
+    public static Term generalizeAll(List<? extends Term> terms) {
+        return generalizeAll(terms, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the least general generalization of many terms by a parallel
+     * reduction on the given pool. Anti-unification is associative and
+     * commutative up to the names of generalization variables, so the
+     * result does not depend on how the terms are grouped.
+     * @param terms the terms to generalize, at least one
+     * @param pool the pool executing the reduction
+     * @return the generalization of all terms
+     * @throws IllegalArgumentException if no term is given
+     */
+    public static Term generalizeAll(List<? extends Term> terms, ForkJoinPool pool) {
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Cannot generalize an empty list of terms");
+        }
+        return pool.submit(() -> terms.parallelStream()
+                        .map(Term.class::cast)
+                        .reduce(AntiUnifier::generalize)
+                        .orElseThrow())
+                .join();
+    }
+
+    /**
+     * A disagreement pair, compared structurally.
+     * @param left the subterm of the first input
+     * @param right the subterm of the second input
+     */
+    private record Pair(Term left, Term right) {}
+
+    /**
+     * A pair of function objects, compared by identity.
+     * @param left the function of the first input
+     * @param right the function of the second input
+     */
+    private record SharedPair(Function left, Function right) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SharedPair other && left == other.left && right == other.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(left) + System.identityHashCode(right);
+        }
+    }
+
+    /**
+     * The state of one anti-unification: the variables introduced for
+     * disagreement pairs and the generalizations of function pairs.
+     */
+    private static final class Run {
+
+        private final Map<Pair, Variable> variables = new HashMap<>();
+        private final Map<SharedPair, Term> shared = new HashMap<>();
+        private final Map<Variable, Term> left = new HashMap<>();
+        private final Map<Variable, Term> right = new HashMap<>();
+
+        /**
+         * Generalizes a pair of subterms. Compatible function pairs are generalized
+         * in postorder with an explicit stack, so arbitrarily deep inputs cannot
+         * overflow the call stack.
+         * @param s the subterm of the first input
+         * @param t the subterm of the second input
+         * @return their least general generalization within this run
+         */
+        Term generalize(Term s, Term t) {
+            Term direct = known(s, t);
+            if (direct != null) {
+                return direct;
+            }
+            Deque<Frame> open = new ArrayDeque<>();
+            open.push(new Frame((Function) s, (Function) t));
+            while (true) {
+                Frame top = open.peek();
+                if (top.next < top.arguments.length) {
+                    Term a = top.left.getArgumentOnPosition(top.next);
+                    Term b = top.right.getArgumentOnPosition(top.next);
+                    Term g = known(a, b);
+                    if (g == null) {
+                        open.push(new Frame((Function) a, (Function) b));
+                    } else {
+                        top.arguments[top.next++] = g;
+                    }
+                    continue;
+                }
+                open.pop();
+                Term result = Function.withArguments(top.left, top.arguments);
+                shared.put(new SharedPair(top.left, top.right), result);
+                Frame parent = open.peek();
+                if (parent == null) {
+                    return result;
+                }
+                parent.arguments[parent.next++] = result;
+            }
+        }
+
+        /**
+         * Generalizes a pair without descending into it: equal terms, memoized
+         * function pairs and disagreement pairs.
+         * @param s the subterm of the first input
+         * @param t the subterm of the second input
+         * @return the generalization, or null for a compatible function pair still to be generalized
+         */
+        private Term known(Term s, Term t) {
+            if (s == t || s.equals(t)) {
+                return s;
+            }
+            if (s instanceof Function sf && t instanceof Function tf && sf.isCompatibleWith(tf)) {
+                return shared.get(new SharedPair(sf, tf));
+            }
+            return variables.computeIfAbsent(new Pair(s, t), pair -> {
+                Variable v = Variable.fresh();
+                left.put(v, s);
+                right.put(v, t);
+                return v;
+            });
+        }
+    }
+
+    /**
+     * A pair of compatible functions whose arguments are being generalized.
+     */
+    private static final class Frame {
+
+        private final Function left;
+        private final Function right;
+        private final Term[] arguments;
+        private int next;
+
+        Frame(Function left, Function right) {
+            this.left = left;
+            this.right = right;
+            this.arguments = new Term[left.getArity()];
+        }
+    }
+}
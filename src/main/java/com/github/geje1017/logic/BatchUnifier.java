@@ -0,0 +1,145 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Equation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Provides static methods to unify many independent equation sets in
+ * parallel on a fork-join pool. Work is split by the estimated cost of the
+ * problems (their total term size) rather than by count, so batches of tiny
+ * problems are processed in chunks large enough to outweigh scheduling.
+ */
+public abstract class BatchUnifier {
+
+    /**
+     * The smallest estimated cost, in term nodes, worth forking a task for.
+     */
+    private static final long MIN_CHUNK_COST = 4096;
+
+    /**
+     * How many chunks each worker should receive to balance uneven problems.
+     */
+    private static final int CHUNKS_PER_WORKER = 8;
+
+    /**
+     * Unifies every equation set on the common pool without recording traces.
+     * @param problems the equation sets to unify
+     * @return the results in the order of the problems
+     */
+    public static List<UnifyResult> unifyAll(List<? extends Collection<Equation>> problems) {
+        return unifyAll(problems, Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Unifies every equation set on the given pool.
+     * @param problems the equation sets to unify
+     * @param options the options passed to every unification
+     * @param pool the pool executing the work
+     * @return the results in the order of the problems
+     */
+    public static List<UnifyResult> unifyAll(List<? extends Collection<Equation>> problems,
+                                             Unifier.Options options,
+                                             ForkJoinPool pool) {
+        int n = problems.size();
+        UnifyResult[] results = new UnifyResult[n];
+        if (n == 0) {
+            return List.of();
+        }
+        long[] prefixCost = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            prefixCost[i + 1] = prefixCost[i] + cost(problems.get(i));
+        }
+        long threshold = Math.max(MIN_CHUNK_COST,
+                prefixCost[n] / ((long) pool.getParallelism() * CHUNKS_PER_WORKER));
+        pool.invoke(new Chunk(problems, options, results, prefixCost, threshold, 0, n));
+        return List.of(results);
+    }
+
+    /**
+     * Unifies a stream of equation sets on the given pool and hands each
+     * result to the sink as soon as it is available, in no particular order.
+     * The sink is called concurrently from worker threads.
+     * @param problems the equation sets to unify
+     * @param options the options passed to every unification
+     * @param pool the pool executing the work
+     * @param sink the thread-safe consumer receiving each problem with its result
+     */
+    public static void unifyUnordered(Stream<? extends Collection<Equation>> problems,
+                                      Unifier.Options options,
+                                      ForkJoinPool pool,
+                                      BiConsumer<Collection<Equation>, UnifyResult> sink) {
+        pool.submit(() -> problems.parallel().unordered()
+                .forEach(problem -> sink.accept(problem, Unifier.unify(problem, options))))
+                .join();
+    }
+
+    /**
+     * Estimates the work of a problem by the size of its terms.
+     * @param problem the equation set
+     * @return the total node count of all equation sides, at least 1
+     */
+    private static long cost(Collection<Equation> problem) {
+        long cost = 1;
+        for (Equation eq : problem) {
+            cost += eq.left().size() + eq.right().size();
+        }
+        return cost;
+    }
+
+    /**
+     * Unifies a contiguous range of problems, splitting it at the cost
+     * midpoint while it is more expensive than the threshold.
+     */
+    private static final class Chunk extends RecursiveAction {
+
+        private final List<? extends Collection<Equation>> problems;
+        private final Unifier.Options options;
+        private final UnifyResult[] results;
+        private final long[] prefixCost;
+        private final long threshold;
+        private final int from;
+        private final int to;
+
+        Chunk(List<? extends Collection<Equation>> problems, Unifier.Options options,
+              UnifyResult[] results, long[] prefixCost, long threshold, int from, int to) {
+            this.problems = problems;
+            this.options = options;
+            this.results = results;
+            this.prefixCost = prefixCost;
+            this.threshold = threshold;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && prefixCost[to] - prefixCost[from] > threshold) {
+                int mid = split();
+                invokeAll(new Chunk(problems, options, results, prefixCost, threshold, from, mid),
+                        new Chunk(problems, options, results, prefixCost, threshold, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                results[i] = Unifier.unify(problems.get(i), options);
+            }
+        }
+
+        /**
+         * Finds the index that divides the range into two halves of similar cost.
+         * @return a split index strictly between from and to
+         */
+        private int split() {
+            long half = (prefixCost[from] + prefixCost[to]) >>> 1;
+            int index = Arrays.binarySearch(prefixCost, from + 1, to, half);
+            int mid = index >= 0 ? index : -index - 1;
+            return Math.min(Math.max(mid, from + 1), to - 1);
+        }
+    }
+}
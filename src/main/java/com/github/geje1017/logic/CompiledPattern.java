@@ -0,0 +1,201 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed pattern compiled into a flat program of WAM-style get instructions,
+ * for unifying the same pattern against many subjects.
+ * <p>
+ * The program walks the subject in preorder with an explicit stack: {@code FUNCTOR}
+ * checks symbol id and arity and pushes the arguments, {@code GROUND} compares a
+ * ground pattern subterm with the subject subterm, {@code FIRST_VAR} loads the subject
+ * subterm into the register of a pattern variable and {@code NEXT_VAR} compares a
+ * repeated variable with its register. No equations, substitutions or deques are created.
+ * <p>
+ * The program decides the common cases on its own: every subject variable is met by a
+ * pattern variable, and clashes between ground parts. When a subject variable has to be
+ * bound, a repeated pattern variable meets a non-ground term, or pattern and subject
+ * share variables, the pair is handed to {@link Unifier#unify} instead, so the result
+ * is always the substitution the unifier computes.
+ */
+public final class CompiledPattern {
+
+    private static final int FUNCTOR = 0;
+    private static final int GROUND = 1;
+    private static final int FIRST_VAR = 2;
+    private static final int NEXT_VAR = 3;
+
+    private static final Unifier.Options FALLBACK = Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF);
+    private static final UnifyResult FAILURE = UnifyResult.failure(List.of());
+
+    private final Term pattern;
+    private final int[] code;
+    private final Term[] grounds;
+    private final Variable[] variables;
+    private final int maxStack;
+
+    /**
+     * Creates a compiled pattern from its program.
+     * @param pattern the source pattern
+     * @param code the instructions with their operands
+     * @param grounds the ground subterms referenced by GROUND
+     * @param variables the pattern variables by register
+     * @param maxStack the largest number of pending subject subterms
+     */
+    private CompiledPattern(Term pattern, int[] code, Term[] grounds,
+                            Variable[] variables, int maxStack) {
+        this.pattern = pattern;
+        this.code = code;
+        this.grounds = grounds;
+        this.variables = variables;
+        this.maxStack = maxStack;
+    }
+
+    /**
+     * Compiles a pattern. Ground subterms become single GROUND instructions.
+     * @param pattern the pattern to compile
+     * @return the compiled pattern
+     */
+    public static CompiledPattern compile(Term pattern) {
+        int[] code = new int[16];
+        int length = 0;
+        List<Term> grounds = new ArrayList<>();
+        Map<Variable, Integer> registers = new LinkedHashMap<>();
+        int stack = 1;
+        int maxStack = 1;
+
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(pattern);
+        while (!pending.isEmpty()) {
+            Term t = pending.pop();
+            stack--;
+            if (code.length < length + 3) {
+                code = Arrays.copyOf(code, code.length * 2);
+            }
+            if (t instanceof Variable v) {
+                Integer register = registers.get(v);
+                if (register == null) {
+                    register = registers.size();
+                    registers.put(v, register);
+                    code[length++] = FIRST_VAR;
+                } else {
+                    code[length++] = NEXT_VAR;
+                }
+                code[length++] = register;
+            } else if (t.isGround()) {
+                code[length++] = GROUND;
+                code[length++] = grounds.size();
+                grounds.add(t);
+            } else {
+                Function f = (Function) t;
+                code[length++] = FUNCTOR;
+                code[length++] = f.getSymbol();
+                code[length++] = f.getArity();
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    pending.push(f.getArgumentOnPosition(i));
+                }
+                stack += f.getArity();
+                maxStack = Math.max(maxStack, stack);
+            }
+        }
+        return new CompiledPattern(pattern, Arrays.copyOf(code, length),
+                grounds.toArray(new Term[0]), registers.keySet().toArray(new Variable[0]), maxStack);
+    }
+
+    /**
+     * Returns the pattern this program was compiled from.
+     * @return the source pattern
+     */
+    public Term getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Unifies the pattern with a subject.
+     * @param subject the term to unify with the pattern
+     * @return the same result as unifying pattern = subject with {@link Unifier#unify}, without trace
+     */
+    public UnifyResult unify(Term subject) {
+        if (sharesVariables(subject)) {
+            return fallback(subject);
+        }
+        Term[] registers = new Term[variables.length];
+        Term[] stack = new Term[maxStack];
+        int sp = 0;
+        stack[sp++] = subject;
+        for (int pc = 0; pc < code.length; ) {
+            Term s = stack[--sp];
+            switch (code[pc]) {
+                case FUNCTOR -> {
+                    int arity = code[pc + 2];
+                    if (!(s instanceof Function f) || f.getArity() != arity || f.getSymbol() != code[pc + 1]) {
+                        return s instanceof Variable ? fallback(subject) : FAILURE;
+                    }
+                    for (int i = arity - 1; i >= 0; i--) {
+                        stack[sp++] = f.getArgumentOnPosition(i);
+                    }
+                    pc += 3;
+                }
+                case GROUND -> {
+                    if (!grounds[code[pc + 1]].equals(s)) {
+                        return s.isGround() ? FAILURE : fallback(subject);
+                    }
+                    pc += 2;
+                }
+                case FIRST_VAR -> {
+                    registers[code[pc + 1]] = s;
+                    pc += 2;
+                }
+                default -> {
+                    Term bound = registers[code[pc + 1]];
+                    if (!bound.equals(s)) {
+                        return bound.isGround() && s.isGround() ? FAILURE : fallback(subject);
+                    }
+                    pc += 2;
+                }
+            }
+        }
+        Map<Variable, Term> bindings = new HashMap<>(variables.length * 2);
+        for (int i = 0; i < variables.length; i++) {
+            bindings.put(variables[i], registers[i]);
+        }
+        return UnifyResult.success(Substitution.of(bindings), List.of());
+    }
+
+    /**
+     * Checks whether a variable of the pattern also occurs in the subject.
+     * @param subject the subject term
+     * @return true if the program cannot treat the subject's variables as distinct
+     */
+    private boolean sharesVariables(Term subject) {
+        if (subject.isGround()) {
+            return false;
+        }
+        for (Variable v : variables) {
+            if (subject.contains(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Solves pattern = subject with the generic unifier.
+     * @param subject the subject term
+     * @return the unifier's result
+     */
+    private UnifyResult fallback(Term subject) {
+        return Unifier.unify(List.of(new Equation(pattern, subject)), FALLBACK);
+    }
+}
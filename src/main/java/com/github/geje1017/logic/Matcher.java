@@ -0,0 +1,159 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Provides static methods for one-way matching: finding σ such that
+ * σ(pattern) = subject. Only pattern variables are bound, variables of the
+ * subject are treated like constants, and no occurs-check is needed.
+ * The traversal allocates nothing besides the table of bindings and an
+ * explicit stack of pending pairs, so arbitrarily deep terms cannot
+ * overflow the call stack.
+ */
+public abstract class Matcher {
+
+    /**
+     * Up to this many pattern variables, bindings are looked up by a linear scan.
+     */
+    private static final int LINEAR_LIMIT = 8;
+
+    /**
+     * Matches the pattern against the subject.
+     * @param pattern the term whose variables may be bound
+     * @param subject the term that must be reproduced
+     * @return σ with σ(pattern) = subject, or empty if the subject is no instance of the pattern
+     */
+    public static Optional<Substitution> match(Term pattern, Term subject) {
+        if (pattern.isGround()) {
+            return pattern.equals(subject) ? Optional.of(new Substitution()) : Optional.empty();
+        }
+        Bindings bindings = new Bindings(pattern.getContainedVariables().size());
+        if (!walk(pattern, subject, bindings)) {
+            return Optional.empty();
+        }
+        return Optional.of(bindings.toSubstitution());
+    }
+
+    /**
+     * Checks whether the subject is an instance of the pattern.
+     * @param pattern the term whose variables may be bound
+     * @param subject the term to test
+     * @return true if some σ satisfies σ(pattern) = subject
+     */
+    public static boolean matches(Term pattern, Term subject) {
+        if (pattern.isGround()) {
+            return pattern.equals(subject);
+        }
+        return walk(pattern, subject, new Bindings(pattern.getContainedVariables().size()));
+    }
+
+    /**
+     * Walks pattern and subject together in preorder, stopping at the first mismatch.
+     * Pending pairs are kept on an array stack, pattern above subject.
+     * @param pattern the pattern
+     * @param subject the subject
+     * @param bindings the pattern variables bound so far
+     * @return true if the terms match consistently with the bindings
+     */
+    private static boolean walk(Term pattern, Term subject, Bindings bindings) {
+        Term[] stack = new Term[16];
+        int sp = 0;
+        stack[sp++] = subject;
+        stack[sp++] = pattern;
+        while (sp > 0) {
+            Term p = stack[--sp];
+            Term s = stack[--sp];
+            if (p instanceof Variable v) {
+                if (!bindings.bind(v, s)) {
+                    return false;
+                }
+                continue;
+            }
+            if (p.isGround()) {
+                if (!p.equals(s)) {
+                    return false;
+                }
+                continue;
+            }
+            if (!(s instanceof Function sf)) {
+                return false;
+            }
+            Function pf = (Function) p;
+            if (!pf.isCompatibleWith(sf)) {
+                return false;
+            }
+            int arity = pf.getArity();
+            if (sp + 2 * arity > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, sp + 2 * arity));
+            }
+            for (int i = arity - 1; i >= 0; i--) {
+                stack[sp++] = sf.getArgumentOnPosition(i);
+                stack[sp++] = pf.getArgumentOnPosition(i);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The bindings of pattern variables, kept in parallel arrays and
+     * indexed by a hash map only for patterns with many variables.
+     */
+    private static final class Bindings {
+
+        private final Variable[] variables;
+        private final Term[] terms;
+        private final Map<Variable, Term> index;
+        private int count;
+
+        Bindings(int capacity) {
+            this.variables = new Variable[capacity];
+            this.terms = new Term[capacity];
+            this.index = capacity > LINEAR_LIMIT ? new HashMap<>(capacity * 2) : null;
+        }
+
+        /**
+         * Binds the variable, or checks the existing binding.
+         * @param v the pattern variable
+         * @param subject the subterm it must stand for
+         * @return false if the variable is already bound to a different term
+         */
+        boolean bind(Variable v, Term subject) {
+            if (index != null) {
+                Term bound = index.putIfAbsent(v, subject);
+                if (bound != null) {
+                    return bound.equals(subject);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    if (variables[i].equals(v)) {
+                        return terms[i].equals(subject);
+                    }
+                }
+            }
+            variables[count] = v;
+            terms[count] = subject;
+            count++;
+            return true;
+        }
+
+        /**
+         * Converts the bindings to a substitution, omitting identity bindings.
+         * @return the matching substitution
+         */
+        Substitution toSubstitution() {
+            Map<Variable, Term> map = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                if (!variables[i].equals(terms[i])) {
+                    map.put(variables[i], terms[i]);
+                }
+            }
+            return Substitution.of(map);
+        }
+    }
+}
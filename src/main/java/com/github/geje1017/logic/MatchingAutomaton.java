@@ -0,0 +1,266 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A deterministic left-to-right automaton matching a subject against a whole set
+ * of patterns at once, with the semantics of {@link Matcher}.
+ * <p>
+ * The subject is read once in preorder, one symbol per step. A state stands for
+ * the patterns still possible together with the pattern subterms each of them
+ * has left to match; a pattern variable meeting a symbol of arity n expands into
+ * n wildcards, so all patterns advance in lockstep. Patterns sharing a prefix share
+ * states, and a subject step costs one transition lookup however many patterns
+ * are registered. States are built lazily on the first subject that reaches
+ * them and cached, so the automaton only grows as far as the subjects seen.
+ * Substitutions are computed for the accepted patterns only, which also checks
+ * repeated variables. Matching is thread-safe.
+ */
+public final class MatchingAutomaton {
+
+    /**
+     * Stands for any subterm; pattern variables are replaced by it.
+     */
+    private static final Variable WILDCARD = new Variable("_");
+
+    private final List<Term> patterns;
+    private final Map<Set<Item>, State> states = new ConcurrentHashMap<>();
+    private final State initial;
+
+    /**
+     * A pattern matching a subject.
+     * @param index the position of the pattern in the compiled list
+     * @param pattern the matching pattern
+     * @param substitution σ with σ(pattern) = subject
+     */
+    public record Match(int index, Term pattern, Substitution substitution) {
+    }
+
+    /**
+     * Creates the automaton for a list of patterns.
+     * @param patterns the patterns
+     */
+    private MatchingAutomaton(List<Term> patterns) {
+        this.patterns = patterns;
+        Set<Item> items = new LinkedHashSet<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            items.add(new Item(i, new Pending(wildcarded(patterns.get(i)), null)));
+        }
+        this.initial = state(items);
+    }
+
+    /**
+     * Compiles a set of patterns into a matching automaton.
+     * @param patterns the patterns, in the order reported by {@link Match#index()}
+     * @return the automaton
+     */
+    public static MatchingAutomaton compile(List<? extends Term> patterns) {
+        return new MatchingAutomaton(List.copyOf(patterns));
+    }
+
+    /**
+     * Returns the compiled patterns.
+     * @return the patterns in index order
+     */
+    public List<Term> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the number of states built so far.
+     * @return the size of the automaton
+     */
+    public int stateCount() {
+        return states.size();
+    }
+
+    /**
+     * Finds every pattern the subject is an instance of.
+     * @param subject the term to match
+     * @return the matches in pattern order
+     */
+    public List<Match> match(Term subject) {
+        State state = initial;
+        Term[] stack = new Term[16];
+        int sp = 0;
+        stack[sp++] = subject;
+        while (sp > 0 && !state.isDead()) {
+            Term s = stack[--sp];
+            state = state.next(Symbol.of(s));
+            if (s instanceof Function f) {
+                if (sp + f.getArity() > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, sp + f.getArity()));
+                }
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    stack[sp++] = f.getArgumentOnPosition(i);
+                }
+            }
+        }
+        if (state.accepted.length == 0) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>(state.accepted.length);
+        for (int index : state.accepted) {
+            Optional<Substitution> sigma = Matcher.match(patterns.get(index), subject);
+            if (sigma.isPresent()) {
+                matches.add(new Match(index, patterns.get(index), sigma.get()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the unique state for a set of items.
+     * @param items the items of the state
+     * @return the cached or newly created state
+     */
+    private State state(Set<Item> items) {
+        return states.computeIfAbsent(items, State::new);
+    }
+
+    /**
+     * Replaces a variable by the wildcard, so that states do not depend on variable names.
+     * @param term a pattern subterm
+     * @return the wildcard for variables, the term otherwise
+     */
+    private static Term wildcarded(Term term) {
+        return term instanceof Variable ? WILDCARD : term;
+    }
+
+    /**
+     * The symbol read at one subject position.
+     * All subject variables read as the same symbol, which only pattern variables accept,
+     * so the transitions of a state stay bounded by the pattern symbols plus one.
+     * @param kind 0 for variables, 1 for constants, 2 for functions
+     * @param id the {@link com.github.geje1017.term.Symbols} id of the name, 0 for variables
+     * @param arity the number of arguments
+     */
+    private record Symbol(int kind, int id, int arity) {
+
+        private static final Symbol VARIABLE = new Symbol(0, 0, 0);
+
+        /**
+         * Returns the symbol at the root of a subject subterm.
+         * @param term the subject subterm
+         * @return its root symbol
+         */
+        static Symbol of(Term term) {
+            if (term instanceof Function f) {
+                return new Symbol(2, f.getSymbol(), f.getArity());
+            }
+            return term instanceof Constant c ? new Symbol(1, c.getId(), 0) : VARIABLE;
+        }
+    }
+
+    /**
+     * The pattern subterms still to be matched, in subject preorder, as an immutable list.
+     * @param head the next pattern subterm
+     * @param tail the rest, or null
+     */
+    private record Pending(Term head, Pending tail) {
+    }
+
+    /**
+     * A pattern that is still possible together with its pending subterms.
+     * @param pattern the index of the pattern
+     * @param pending the subterms left to match, or null once the pattern is complete
+     */
+    private record Item(int pattern, Pending pending) {
+
+        /**
+         * Advances the item by one subject symbol.
+         * @param symbol the symbol read
+         * @return the advanced item, or null if the pattern cannot match
+         */
+        Item advance(Symbol symbol) {
+            Term head = pending.head();
+            Pending rest = pending.tail();
+            if (head instanceof Variable) {
+                for (int i = 0; i < symbol.arity(); i++) {
+                    rest = new Pending(WILDCARD, rest);
+                }
+                return new Item(pattern, rest);
+            }
+            if (head instanceof Constant c) {
+                return symbol.kind() == 1 && symbol.id() == c.getId() ? new Item(pattern, rest) : null;
+            }
+            Function f = (Function) head;
+            if (symbol.kind() != 2 || symbol.arity() != f.getArity() || symbol.id() != f.getSymbol()) {
+                return null;
+            }
+            for (int i = f.getArity() - 1; i >= 0; i--) {
+                rest = new Pending(wildcarded(f.getArgumentOnPosition(i)), rest);
+            }
+            return new Item(pattern, rest);
+        }
+    }
+
+    /**
+     * A state of the automaton with its lazily built transitions.
+     */
+    private final class State {
+
+        private final Set<Item> items;
+        private final int[] accepted;
+        private final Map<Symbol, State> transitions = new ConcurrentHashMap<>();
+
+        State(Set<Item> items) {
+            this.items = items;
+            this.accepted = items.stream()
+                    .filter(item -> item.pending() == null)
+                    .mapToInt(Item::pattern)
+                    .sorted()
+                    .toArray();
+        }
+
+        /**
+         * Checks whether no pattern can match any more.
+         * @return true if the state has no items
+         */
+        boolean isDead() {
+            return items.isEmpty();
+        }
+
+        /**
+         * Returns the state reached by reading a symbol, building it on first use.
+         * @param symbol the subject symbol
+         * @return the successor state
+         */
+        State next(Symbol symbol) {
+            State next = transitions.get(symbol);
+            if (next == null) {
+                next = transitions.computeIfAbsent(symbol, this::successor);
+            }
+            return next;
+        }
+
+        /**
+         * Computes the successor state for a symbol.
+         * @param symbol the subject symbol
+         * @return the state holding the advanced items
+         */
+        private State successor(Symbol symbol) {
+            Set<Item> advanced = new LinkedHashSet<>();
+            for (Item item : items) {
+                if (item.pending() != null) {
+                    Item next = item.advance(symbol);
+                    if (next != null) {
+                        advanced.add(next);
+                    }
+                }
+            }
+            return state(advanced);
+        }
+    }
+}
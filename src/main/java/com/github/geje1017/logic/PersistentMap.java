@@ -0,0 +1,240 @@
+package com.github.geje1017.logic;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash array mapped trie. Every update copies only the path
+ * from the root to the changed entry, so put runs in O(log n) and all
+ * earlier versions of the map remain valid and unchanged.
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class PersistentMap<K, V> {
+
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the shared empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentMap<K, V> empty() {
+        return (PersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns the value bound to the key.
+     * @param key the key to look up
+     * @return the value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        return root == null ? null : (V) root.find(key, key.hashCode(), 0);
+    }
+
+    /**
+     * Checks whether the key is bound in this map.
+     * @param key the key to look up
+     * @return true if the key is present
+     */
+    boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map that additionally binds the key to the value,
+     * replacing an existing binding of the key.
+     * @param key the key to bind
+     * @param value the non-null value
+     * @return the updated map
+     */
+    PersistentMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node start = root == null ? BitmapNode.EMPTY : root;
+        Node updated = start.put(key, value, key.hashCode(), 0, added);
+        return updated == root ? this : new PersistentMap<>(updated, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns the number of bindings.
+     * @return the size of this map
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Performs the action for every binding, in no particular order.
+     * @param action the action to perform
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /**
+     * A trie node.
+     */
+    private abstract static class Node {
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node put(Object key, Object value, int hash, int shift, boolean[] added);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * A node holding up to 32 slots selected by five bits of the hash.
+     * Each present slot occupies two array cells: a key and its value,
+     * or null and a child node.
+     */
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                return ((Node) v).find(key, hash, shift + 5);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            int idx = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] grown = new Object[array.length + 2];
+                System.arraycopy(array, 0, grown, 0, idx);
+                grown[idx] = key;
+                grown[idx + 1] = value;
+                System.arraycopy(array, idx, grown, idx + 2, array.length - idx);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, grown);
+            }
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = (Node) v;
+                Node updated = child.put(key, value, hash, shift + 5, added);
+                return updated == child ? this : with(idx, null, updated);
+            }
+            if (key.equals(k)) {
+                return v == value ? this : with(idx, k, value);
+            }
+            added[0] = true;
+            return with(idx, null, pair(k, v, key, value, hash, shift + 5));
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+
+        private BitmapNode with(int idx, Object key, Object value) {
+            Object[] copy = array.clone();
+            copy[idx] = key;
+            copy[idx + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private static Node pair(Object k1, Object v1, Object k2, Object v2, int hash2, int shift) {
+            int hash1 = k1.hashCode();
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[]{k1, v1, k2, v2});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(k1, v1, hash1, shift, ignored).put(k2, v2, hash2, shift, ignored);
+        }
+    }
+
+    /**
+     * A node holding keys whose full hash codes collide.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return array[i + 1];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, boolean[] added) {
+            if (hash != this.hash) {
+                BitmapNode wrapper = new BitmapNode(1 << ((this.hash >>> shift) & 31), new Object[]{null, this});
+                return wrapper.put(key, value, hash, shift, added);
+            }
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    if (array[i + 1] == value) {
+                        return this;
+                    }
+                    Object[] copy = array.clone();
+                    copy[i + 1] = value;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            Object[] grown = Arrays.copyOf(array, array.length + 2);
+            grown[array.length] = key;
+            grown[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, grown);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+}
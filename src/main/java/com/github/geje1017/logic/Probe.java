@@ -0,0 +1,121 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.logic.TraceEvent.Rule;
+import com.github.geje1017.term.Term;
+
+/**
+ * Counts the work of one unification call for {@link UnifierMetrics} and
+ * {@link UnificationEvent}. If neither is enabled, the shared disabled
+ * probe ignores every call, so the engines can report to it unconditionally.
+ */
+final class Probe {
+
+    private static final Probe DISABLED = new Probe(false, null);
+
+    private final boolean active;
+    private final UnificationEvent event;
+    private final long start;
+    private long deletes;
+    private long swaps;
+    private long eliminations;
+    private long decompositions;
+    private long occursCheckVisits;
+    private long instantiatedNodes;
+    private int peakQueueSize;
+
+    private Probe(boolean active, UnificationEvent event) {
+        this.active = active;
+        this.event = event;
+        this.start = active ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Starts measuring a unification call.
+     * @return a fresh probe if metrics or the flight recorder event are enabled, otherwise the disabled probe
+     */
+    static Probe start() {
+        UnificationEvent event = new UnificationEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            return new Probe(true, event);
+        }
+        return UnifierMetrics.isEnabled() ? new Probe(true, null) : DISABLED;
+    }
+
+    /**
+     * Counts an applied rule.
+     * @param rule the rule
+     */
+    void rule(Rule rule) {
+        if (!active) return;
+        switch (rule) {
+            case DELETE -> deletes++;
+            case SWAP -> swaps++;
+            case ELIMINATE -> eliminations++;
+            case DECOMPOSE -> decompositions++;
+        }
+    }
+
+    /**
+     * Counts nodes inspected by the occurs-check.
+     * @param visited the number of nodes or bindings inspected
+     */
+    void occursCheck(long visited) {
+        if (!active) return;
+        occursCheckVisits += visited;
+    }
+
+    /**
+     * Counts the nodes of a term a substitution is applied to. Ground terms
+     * are returned unchanged by instantiate and count as a single node.
+     * @param term the term being instantiated
+     */
+    void instantiate(Term term) {
+        if (!active) return;
+        instantiatedNodes += term.isGround() ? 1 : term.size();
+    }
+
+    /**
+     * Records the current size of the work queue.
+     * @param size the number of pending equations
+     */
+    void queue(int size) {
+        if (!active) return;
+        if (size > peakQueueSize) {
+            peakQueueSize = size;
+        }
+    }
+
+    /**
+     * Completes the measurement and publishes it.
+     * @param engine the engine that ran
+     * @param equations the number of input equations
+     * @param result the result of the call
+     */
+    void finish(Unifier.Engine engine, int equations, UnifyResult result) {
+        if (!active) return;
+        long nanos = System.nanoTime() - start;
+        int substitutionSize = result.getSubstitution().size();
+        if (UnifierMetrics.isEnabled()) {
+            UnifierMetrics.record(result.isSuccess(), deletes, swaps, eliminations, decompositions,
+                    occursCheckVisits, instantiatedNodes, peakQueueSize, substitutionSize, nanos);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.engine = engine.name();
+                event.equations = equations;
+                event.success = result.isSuccess();
+                event.substitutionSize = substitutionSize;
+                event.deletes = deletes;
+                event.swaps = swaps;
+                event.eliminations = eliminations;
+                event.decompositions = decompositions;
+                event.occursCheckVisits = occursCheckVisits;
+                event.instantiatedNodes = instantiatedNodes;
+                event.peakQueueSize = peakQueueSize;
+                event.commit();
+            }
+        }
+    }
+}
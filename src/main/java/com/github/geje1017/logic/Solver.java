@@ -0,0 +1,270 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable unifier for backtracking search. Bindings are made in place and
+ * recorded on a trail; {@link #mark()} remembers the trail height at a choice
+ * point and {@link #undo(int)} removes the bindings made since, in time
+ * proportional to their number. Bound terms are stored unresolved, so
+ * binding is O(1) apart from the occurs-check, and {@link #snapshot()}
+ * exports the current bindings as an immutable {@link Substitution}.
+ * <p>
+ * A failed {@link #unify} leaves the bindings as they were before the call.
+ * This class is not thread-safe.
+ */
+public final class Solver {
+
+    private final Map<Variable, Term> bindings = new HashMap<>();
+    private Variable[] trail = new Variable[16];
+    private int trailTop;
+
+    /**
+     * Returns the current height of the trail, to be passed to {@link #undo(int)}.
+     * @return the mark of the current state
+     */
+    public int mark() {
+        return trailTop;
+    }
+
+    /**
+     * Removes all bindings made after the given mark.
+     * @param mark a value returned by {@link #mark()} that is not above the current height
+     * @throws IllegalArgumentException if the mark lies above the current trail height
+     */
+    public void undo(int mark) {
+        if (mark < 0 || mark > trailTop) {
+            throw new IllegalArgumentException("Invalid mark " + mark + " for trail height " + trailTop);
+        }
+        while (trailTop > mark) {
+            Variable v = trail[--trailTop];
+            trail[trailTop] = null;
+            bindings.remove(v);
+        }
+    }
+
+    /**
+     * Unifies two terms under the current bindings, adding the bindings needed.
+     * @param left the left term
+     * @param right the right term
+     * @return true if the terms were unified, false if they clash or the occurs-check fails
+     */
+    public boolean unify(Term left, Term right) {
+        int mark = trailTop;
+        Deque<Term> work = new ArrayDeque<>();
+        work.push(right);
+        work.push(left);
+        while (!work.isEmpty()) {
+            Term l = dereference(work.pop());
+            Term r = dereference(work.pop());
+            if (l == r || l.equals(r)) {
+                continue;
+            }
+            if (l instanceof Variable v) {
+                if (!bind(v, r)) {
+                    undo(mark);
+                    return false;
+                }
+            } else if (r instanceof Variable v) {
+                if (!bind(v, l)) {
+                    undo(mark);
+                    return false;
+                }
+            } else if (l instanceof Function lf && r instanceof Function rf && lf.isCompatibleWith(rf)) {
+                for (int i = lf.getArity() - 1; i >= 0; i--) {
+                    work.push(rf.getArgumentOnPosition(i));
+                    work.push(lf.getArgumentOnPosition(i));
+                }
+            } else {
+                undo(mark);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the current bindings to a term.
+     * @param term the term to resolve
+     * @return the term with every bound variable replaced, sharing unchanged subterms
+     */
+    public Term resolve(Term term) {
+        return bindings.isEmpty() ? term : resolve(term, new IdentityHashMap<>());
+    }
+
+    /**
+     * Returns the number of bound variables.
+     * @return the size of the current bindings
+     */
+    public int size() {
+        return trailTop;
+    }
+
+    /**
+     * Exports the current bindings as an immutable substitution in idempotent form.
+     * Later changes to this solver do not affect the snapshot.
+     * @return the substitution mapping every bound variable to its resolved term
+     */
+    public Substitution snapshot() {
+        Map<Variable, Term> resolved = new HashMap<>();
+        Map<Function, Term> memo = new IdentityHashMap<>();
+        for (int i = 0; i < trailTop; i++) {
+            resolved.put(trail[i], resolve(trail[i], memo));
+        }
+        return Substitution.of(resolved);
+    }
+
+    /**
+     * Follows the bindings of a variable until an unbound variable or a non-variable is reached.
+     * @param term the term to dereference
+     * @return the representative term
+     */
+    private Term dereference(Term term) {
+        while (term instanceof Variable v) {
+            Term bound = bindings.get(v);
+            if (bound == null) {
+                return v;
+            }
+            term = bound;
+        }
+        return term;
+    }
+
+    /**
+     * Binds an unbound variable and records it on the trail.
+     * @param v the dereferenced variable
+     * @param t the dereferenced term
+     * @return false if the occurs-check fails
+     */
+    private boolean bind(Variable v, Term t) {
+        if (t instanceof Function && occurs(v, t)) {
+            return false;
+        }
+        bindings.put(v, t);
+        if (trailTop == trail.length) {
+            trail = Arrays.copyOf(trail, trailTop * 2);
+        }
+        trail[trailTop++] = v;
+        return true;
+    }
+
+    /**
+     * Checks whether a variable occurs in a term under the current bindings.
+     * Only the cached variable sets are inspected, and each bound variable is followed once.
+     * @param v the unbound variable
+     * @param t the term
+     * @return true if v occurs in t after resolution
+     */
+    private boolean occurs(Variable v, Term t) {
+        Set<Variable> visited = new HashSet<>();
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(t);
+        while (!pending.isEmpty()) {
+            for (Variable w : pending.pop().getContainedVariables()) {
+                if (w.equals(v)) {
+                    return true;
+                }
+                Term bound = bindings.get(w);
+                if (bound != null && visited.add(w)) {
+                    pending.push(bound);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Applies the current bindings, resolving every shared function only once.
+     * Functions are rebuilt in postorder with an explicit stack, so arbitrarily
+     * deep terms and bindings cannot overflow the call stack.
+     * @param term the term to resolve
+     * @param memo the functions resolved so far
+     * @return the resolved term
+     */
+    private Term resolve(Term term, Map<Function, Term> memo) {
+        Term start = dereference(term);
+        Term direct = resolved(start, memo);
+        if (direct != null) {
+            return direct;
+        }
+        Deque<Rebuild> open = new ArrayDeque<>();
+        open.push(new Rebuild((Function) start));
+        while (true) {
+            Rebuild top = open.peek();
+            if (top.next < top.function.getArity()) {
+                Term arg = dereference(top.function.getArgumentOnPosition(top.next));
+                Term known = resolved(arg, memo);
+                if (known == null) {
+                    open.push(new Rebuild((Function) arg));
+                } else {
+                    top.accept(known);
+                }
+                continue;
+            }
+            open.pop();
+            Function f = top.function;
+            Term result = top.arguments == null ? f : Function.withArguments(f, top.arguments);
+            memo.put(f, result);
+            Rebuild parent = open.peek();
+            if (parent == null) {
+                return result;
+            }
+            parent.accept(result);
+        }
+    }
+
+    /**
+     * Returns the resolved form of a dereferenced term that needs no rebuilding.
+     * @param term a dereferenced term
+     * @param memo the functions resolved so far
+     * @return the resolved term, or null for a non-ground function still to be resolved
+     */
+    private static Term resolved(Term term, Map<Function, Term> memo) {
+        if (!(term instanceof Function f) || f.isGround()) {
+            return term;
+        }
+        return memo.get(f);
+    }
+
+    /**
+     * A function whose arguments are being resolved. The argument array
+     * is only allocated once an argument actually changes.
+     */
+    private static final class Rebuild {
+
+        private final Function function;
+        private Term[] arguments;
+        private int next;
+
+        Rebuild(Function function) {
+            this.function = function;
+        }
+
+        /**
+         * Stores the resolved form of the next argument.
+         * @param result the resolved argument
+         */
+        void accept(Term result) {
+            if (result != function.getArgumentOnPosition(next) && arguments == null) {
+                arguments = new Term[function.getArity()];
+                for (int j = 0; j < next; j++) {
+                    arguments[j] = function.getArgumentOnPosition(j);
+                }
+            }
+            if (arguments != null) {
+                arguments[next] = result;
+            }
+            next++;
+        }
+    }
+}
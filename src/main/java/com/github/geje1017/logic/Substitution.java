@@ -1,26 +1,64 @@
 package com.github.geje1017.logic;
 
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Function;
 import com.github.geje1017.term.Term;
 import com.github.geje1017.term.Variable;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents an immutable substitution mapping variables to terms (σ: X ↦ t).
  * All modification methods return new instances.
  * Occurs-check is performed externally in the Unifier.
+ * <p>
+ * Bindings are kept in triangular form in a persistent hash trie: every
+ * {@link #extend} stores its binding unchanged in O(log n) together with
+ * its position in the sequence of extensions. A binding is resolved lazily
+ * by applying the bindings added after it, and resolved values are cached
+ * and reused by later extensions (path compression). {@link #normalize()}
+ * yields the equivalent idempotent form.
  */
 public final class Substitution {
 
-    private final Map<Variable, Term> map;
+    private final PersistentMap<Variable, Binding> bindings;
+    private final int depth;
+    private final Lineage lineage;
+
+    /**
+     * A bound term together with the number of extensions it was resolved against.
+     * @param term the bound term
+     * @param index the binding's position; only bindings with a greater index apply to the term
+     */
+    private record Binding(Term term, int index) {}
+
+    /**
+     * The resolution cache shared by a linear chain of extensions. Only the
+     * first extension of the newest version joins the lineage, so all members
+     * agree on their common bindings.
+     */
+    private static final class Lineage {
+
+        private final AtomicInteger tip;
+        private final Map<Variable, Binding> resolved = new ConcurrentHashMap<>();
+
+        Lineage(int tip) {
+            this.tip = new AtomicInteger(tip);
+        }
+    }
 
     /**
      * Constructs an empty substitution.
      */
     public Substitution() {
-        this.map = Map.of();
+        this(PersistentMap.empty(), 0, null);
     }
 
     /**
@@ -28,7 +66,25 @@ public final class Substitution {
      * @param map a map of variable-to-term bindings
      */
     private Substitution(Map<Variable, Term> map) {
-        this.map = Map.copyOf(map);
+        this(flat(map), 0, null);
+    }
+
+    private Substitution(PersistentMap<Variable, Binding> bindings, int depth, Lineage lineage) {
+        this.bindings = bindings;
+        this.depth = depth;
+        this.lineage = lineage;
+    }
+
+    /**
+     * Creates a substitution directly from a map of bindings, bypassing composition.
+     * The bindings are applied simultaneously as one flat layer and are not resolved
+     * against each other, so a non-idempotent substitution such as a matcher's
+     * {Y↦X, X↦a} is kept exactly as given.
+     * @param bindings a map of variable-to-term bindings
+     * @return a substitution containing exactly the given bindings
+     */
+    public static Substitution of(Map<Variable, Term> bindings) {
+        return new Substitution(bindings);
     }
 
     /**
@@ -47,18 +103,158 @@ public final class Substitution {
      * @return the bound term, or the variable if unbound
      */
     public Term lookup(Variable var) {
-        return map.getOrDefault(var, var);
+        Binding binding = bindings.get(var);
+        if (binding == null) {
+            return var;
+        }
+        Binding start = start(var, binding);
+        if (start.index() == depth) {
+            return start.term();
+        }
+        Term resolved = resolveAbove(start.term(), start.index());
+        remember(var, resolved);
+        return resolved;
+    }
+
+    /**
+     * Returns the most resolved known form of a binding: the binding itself
+     * or a value cached by the lineage that is valid for this substitution.
+     * @param var the bound variable
+     * @param binding its stored binding
+     * @return the binding to resolve further
+     */
+    private Binding start(Variable var, Binding binding) {
+        if (binding.index() == depth || lineage == null) {
+            return binding;
+        }
+        Binding cached = lineage.resolved.get(var);
+        if (cached != null && cached.index() <= depth && cached.index() >= binding.index()) {
+            return cached;
+        }
+        return binding;
+    }
+
+    /**
+     * Caches the fully resolved value of a variable for the lineage.
+     * @param var the bound variable
+     * @param resolved its value resolved against all bindings of this substitution
+     */
+    private void remember(Variable var, Term resolved) {
+        if (lineage != null) {
+            lineage.resolved.merge(var, new Binding(resolved, depth),
+                    (old, fresh) -> old.index() >= fresh.index() ? old : fresh);
+        }
+    }
+
+    /**
+     * A function whose arguments are being resolved.
+     */
+    private static final class Rebuild {
+
+        private final Function function;
+        private final int index;
+        private Term[] arguments;
+        private int next;
+
+        Rebuild(Function function, int index) {
+            this.function = function;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Applies all bindings added after the given position to a term.
+     * The term is walked with an explicit stack that holds both partially
+     * rebuilt functions and variables whose bindings are being resolved,
+     * so neither deep terms nor long chains of bindings use the call stack.
+     * @param term the term to resolve
+     * @param index the position the term is already resolved against
+     * @return the resolved term, or the same term if no such binding applies
+     */
+    private Term resolveAbove(Term term, int index) {
+        if (term instanceof Constant || term.isGround()) {
+            return term;
+        }
+        Deque<Object> open = new ArrayDeque<>();
+        Term current = term;
+        int currentIndex = index;
+        while (true) {
+            Term value;
+            if (current instanceof Variable v) {
+                Binding binding = bindings.get(v);
+                if (binding == null || binding.index() <= currentIndex) {
+                    value = v;
+                } else {
+                    Binding start = start(v, binding);
+                    if (start.index() == depth) {
+                        value = start.term();
+                    } else {
+                        open.push(v);
+                        current = start.term();
+                        currentIndex = start.index();
+                        continue;
+                    }
+                }
+            } else if (current instanceof Function f && !f.isGround()) {
+                open.push(new Rebuild(f, currentIndex));
+                current = f.getArgumentOnPosition(0);
+                continue;
+            } else {
+                value = current;
+            }
+
+            while (true) {
+                Object top = open.peek();
+                if (top == null) {
+                    return value;
+                }
+                if (top instanceof Variable v) {
+                    open.pop();
+                    remember(v, value);
+                    continue;
+                }
+                Rebuild frame = (Rebuild) top;
+                Function f = frame.function;
+                if (value != f.getArgumentOnPosition(frame.next) && frame.arguments == null) {
+                    frame.arguments = new Term[f.getArity()];
+                    for (int j = 0; j < frame.next; j++) {
+                        frame.arguments[j] = f.getArgumentOnPosition(j);
+                    }
+                }
+                if (frame.arguments != null) {
+                    frame.arguments[frame.next] = value;
+                }
+                frame.next++;
+                if (frame.next < f.getArity()) {
+                    current = f.getArgumentOnPosition(frame.next);
+                    currentIndex = frame.index;
+                    break;
+                }
+                open.pop();
+                value = frame.arguments == null ? f : Function.withArguments(f, frame.arguments);
+            }
+        }
     }
 
     /**
      * Returns a new substitution extended by binding the given variable to the given term.
+     * The binding is stored as is and resolved lazily, so this runs in O(log n).
+     * The term must not contain the variable after applying this substitution.
      * @param v the variable to bind
      * @param t the term to bind the variable to
      * @return a new Substitution containing all previous bindings plus v ↦ t
      */
     public Substitution extend(Variable v, Term t) {
-        Substitution sigma = new Substitution(Map.of(v, t));
-        return sigma.compose(this);
+        if (bindings.containsKey(v)) {
+            Substitution sigma = new Substitution(Map.of(v, t));
+            return sigma.compose(this);
+        }
+        int next = depth + 1;
+        Lineage shared = lineage;
+        if (shared == null || !shared.tip.compareAndSet(depth, next)) {
+            shared = new Lineage(next);
+        }
+        return new Substitution(bindings.put(v, new Binding(t, next)), next, shared);
     }
 
     /**
@@ -69,11 +265,95 @@ public final class Substitution {
      */
     public Substitution compose(Substitution other) {
         Map<Variable, Term> result = new HashMap<>();
-        other.map.forEach((v, t) -> result.put(v, t.instantiate(this)));
-        this.map.forEach(result::putIfAbsent);
+        other.resolved().forEach((v, t) -> result.put(v, t.instantiate(this)));
+        this.resolved().forEach(result::putIfAbsent);
         return new Substitution(result);
     }
 
+    /**
+     * Returns the equivalent substitution in idempotent form, in which every
+     * bound term is fully resolved and no further resolution is needed on lookup.
+     * @return the normalized substitution
+     */
+    public Substitution normalize() {
+        return depth == 0 ? this : new Substitution(resolved());
+    }
+
+    /**
+     * Searches the stored bindings for a cycle, i.e. a variable that occurs in
+     * its own binding directly or through other bound variables. Such a
+     * substitution is not idempotent and cannot be a unifier.
+     * @param visits a one-element counter the entered bindings and the
+     *               inspected variables of their terms are added to
+     * @return a variable on a cycle, or null if the bindings are acyclic
+     */
+    Variable findCycle(int[] visits) {
+        Map<Variable, Boolean> finished = new HashMap<>();
+        Deque<Variable> path = new ArrayDeque<>();
+        Deque<Iterator<Variable>> pending = new ArrayDeque<>();
+        Variable[] cycle = new Variable[1];
+        bindings.forEach((start, ignored) -> {
+            if (cycle[0] != null || finished.containsKey(start)) return;
+            finished.put(start, Boolean.FALSE);
+            visits[0]++;
+            path.push(start);
+            pending.push(bindings.get(start).term().getContainedVariables().iterator());
+            while (!pending.isEmpty() && cycle[0] == null) {
+                Iterator<Variable> next = pending.peek();
+                if (!next.hasNext()) {
+                    finished.put(path.pop(), Boolean.TRUE);
+                    pending.pop();
+                    continue;
+                }
+                Variable child = next.next();
+                visits[0]++;
+                Binding binding = bindings.get(child);
+                if (binding == null) continue;
+                Boolean state = finished.get(child);
+                if (state == null) {
+                    finished.put(child, Boolean.FALSE);
+                    path.push(child);
+                    pending.push(binding.term().getContainedVariables().iterator());
+                } else if (!state) {
+                    cycle[0] = child;
+                }
+            }
+        });
+        return cycle[0];
+    }
+
+    /**
+     * Checks whether this substitution binds any of the given variables,
+     * i.e. whether applying it can change a term containing exactly them.
+     * Iterates over the smaller of the two sets.
+     * @param variables the variables to test
+     * @return true if at least one of the variables is bound
+     */
+    public boolean bindsAny(Set<Variable> variables) {
+        if (variables.isEmpty() || bindings.size() == 0) {
+            return false;
+        }
+        if (variables.size() <= bindings.size()) {
+            for (Variable v : variables) {
+                if (bindings.containsKey(v)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        boolean[] found = new boolean[1];
+        bindings.forEach((v, b) -> found[0] |= variables.contains(v));
+        return found[0];
+    }
+
+    /**
+     * Returns the number of variables bound by this substitution.
+     * @return the size of the domain
+     */
+    public int size() {
+        return bindings.size();
+    }
+
     /**
      * Returns an unmodifiable string representation of this substitution,
      * replacing '=' with '↦'.
@@ -81,7 +361,7 @@ public final class Substitution {
      */
     @Override
     public String toString() {
-        return map.toString().replace("=", "↦");
+        return resolved().toString().replace("=", "↦");
     }
 
     /**
@@ -89,6 +369,29 @@ public final class Substitution {
      * @return an unmodifiable set of the substitution's entries
      */
     public Set<Map.Entry<Variable, Term>> entrySet() {
-        return Map.copyOf(map).entrySet();
+        return resolved().entrySet();
+    }
+
+    /**
+     * Resolves every binding.
+     * @return an unmodifiable map from each bound variable to its resolved term
+     */
+    private Map<Variable, Term> resolved() {
+        Map<Variable, Term> result = new HashMap<>();
+        bindings.forEach((v, b) -> result.put(v, lookup(v)));
+        return Map.copyOf(result);
+    }
+
+    /**
+     * Stores the given bindings as a single layer that needs no resolution.
+     * @param map a map of variable-to-term bindings
+     * @return the persistent bindings
+     */
+    private static PersistentMap<Variable, Binding> flat(Map<Variable, Term> map) {
+        PersistentMap<Variable, Binding> result = PersistentMap.empty();
+        for (Map.Entry<Variable, Term> entry : map.entrySet()) {
+            result = result.put(entry.getKey(), new Binding(entry.getValue(), 0));
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
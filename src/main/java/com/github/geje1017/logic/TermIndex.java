@@ -0,0 +1,318 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A discrimination tree over stored terms. Every term is stored along the
+ * path of its symbols in preorder, with all variables collapsed to a single
+ * wildcard. Retrieval walks only the paths whose functors and arities are
+ * compatible with the query, and then confirms each candidate with real
+ * unification or matching.
+ * <p>
+ * Variables of stored terms and of the query are not renamed apart: a
+ * variable name denotes the same variable on both sides, as in
+ * {@link Unifier#unify}. This class is not thread-safe.
+ */
+public final class TermIndex {
+
+    /**
+     * A stored term together with the substitution that relates it to the query.
+     * @param term the stored term
+     * @param substitution the unifier or matcher for the query
+     */
+    public record Match(Term term, Substitution substitution) {}
+
+    /**
+     * The kind of retrieval, deciding which side's variables may absorb a whole subterm.
+     */
+    private enum Mode {
+        UNIFIABLE(true, true),
+        INSTANCES(true, false),
+        GENERALIZATIONS(false, true);
+
+        private final boolean queryVariablesSkip;
+        private final boolean storedVariablesSkip;
+
+        Mode(boolean queryVariablesSkip, boolean storedVariablesSkip) {
+            this.queryVariablesSkip = queryVariablesSkip;
+            this.storedVariablesSkip = storedVariablesSkip;
+        }
+    }
+
+    /**
+     * The symbol on a tree edge: a functor with its arity, a constant, or the variable wildcard.
+     * Symbols are compared by their {@link com.github.geje1017.term.Symbols} ids.
+     * @param symbol the id of the function name or constant symbol, -1 for the wildcard
+     * @param arity the number of arguments following this symbol in preorder
+     * @param constant true if the symbol is a constant
+     */
+    private record Key(int symbol, int arity, boolean constant) {
+
+        private static final Key VARIABLE = new Key(-1, 0, false);
+
+        static Key of(Term term) {
+            if (term instanceof Function f) {
+                return new Key(f.getSymbol(), f.getArity(), false);
+            } else if (term instanceof Constant c) {
+                return new Key(c.getId(), 0, true);
+            }
+            return VARIABLE;
+        }
+    }
+
+    /**
+     * A node of the discrimination tree. Nodes reached after a complete
+     * term hold the stored terms with that symbol path.
+     */
+    private static final class Node {
+
+        private final Map<Key, Node> children = new HashMap<>();
+        private final List<Term> terms = new ArrayList<>(0);
+        private int count;
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Adds a term to the index. A term may be stored more than once.
+     * @param term the term to store
+     */
+    public void insert(Term term) {
+        Node node = root;
+        node.count++;
+        for (Term symbol : preorder(term).terms) {
+            node = node.children.computeIfAbsent(Key.of(symbol), k -> new Node());
+            node.count++;
+        }
+        node.terms.add(term);
+    }
+
+    /**
+     * Removes one occurrence of a term from the index.
+     * @param term the term to remove
+     * @return true if the term was stored
+     */
+    public boolean remove(Term term) {
+        Term[] symbols = preorder(term).terms;
+        Node[] path = new Node[symbols.length + 1];
+        path[0] = root;
+        for (int i = 0; i < symbols.length; i++) {
+            path[i + 1] = path[i].children.get(Key.of(symbols[i]));
+            if (path[i + 1] == null) {
+                return false;
+            }
+        }
+        if (!path[symbols.length].terms.remove(term)) {
+            return false;
+        }
+        for (int i = symbols.length; i >= 0; i--) {
+            path[i].count--;
+            if (i > 0 && path[i].count == 0) {
+                path[i - 1].children.remove(Key.of(symbols[i - 1]));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of stored terms.
+     * @return the size of the index
+     */
+    public int size() {
+        return root.count;
+    }
+
+    /**
+     * Finds all stored terms that unify with the query.
+     * @param query the query term
+     * @return every unifiable stored term with its most general unifier
+     */
+    public List<Match> unifiable(Term query) {
+        List<Match> matches = new ArrayList<>();
+        for (Term candidate : candidates(query, Mode.UNIFIABLE)) {
+            UnifyResult result = Unifier.unify(List.of(new Equation(query, candidate)), TraceLevel.OFF);
+            if (result.isSuccess()) {
+                matches.add(new Match(candidate, result.getSubstitution()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds all stored terms that are instances of the query, i.e. terms t with σ(query) = t.
+     * @param query the query term
+     * @return every instance with the substitution σ
+     */
+    public List<Match> instances(Term query) {
+        List<Match> matches = new ArrayList<>();
+        for (Term candidate : candidates(query, Mode.INSTANCES)) {
+            Matcher.match(query, candidate)
+                    .ifPresent(sigma -> matches.add(new Match(candidate, sigma)));
+        }
+        return matches;
+    }
+
+    /**
+     * Finds all stored terms that generalize the query, i.e. terms t with σ(t) = query.
+     * @param query the query term
+     * @return every generalization with the substitution σ
+     */
+    public List<Match> generalizations(Term query) {
+        List<Match> matches = new ArrayList<>();
+        for (Term candidate : candidates(query, Mode.GENERALIZATIONS)) {
+            Matcher.match(candidate, query)
+                    .ifPresent(sigma -> matches.add(new Match(candidate, sigma)));
+        }
+        return matches;
+    }
+
+    /**
+     * Collects the stored terms whose symbol paths are compatible with the query.
+     * @param query the query term
+     * @param mode which variables may absorb a whole subterm
+     * @return the candidate terms
+     */
+    private List<Term> candidates(Term query, Mode mode) {
+        Preorder flat = preorder(query);
+        List<Term> result = new ArrayList<>();
+        collect(flat, mode, result);
+        return result;
+    }
+
+    /**
+     * A tree node paired with a count: the index of the next query symbol
+     * while collecting, or the number of stored terms still to consume while skipping.
+     * @param node the tree node
+     * @param count the position or the number of pending terms
+     */
+    private record Visit(Node node, int count) {}
+
+    /**
+     * Walks the tree along the query's preorder with an explicit stack,
+     * visiting the exact edge of a symbol before the wildcard edge.
+     * @param query the flattened query
+     * @param mode which variables may absorb a whole subterm
+     * @param result the list receiving the candidates
+     */
+    private void collect(Preorder query, Mode mode, List<Term> result) {
+        Deque<Visit> pending = new ArrayDeque<>();
+        pending.push(new Visit(root, 0));
+        while (!pending.isEmpty()) {
+            Visit visit = pending.pop();
+            Node node = visit.node();
+            int position = visit.count();
+            if (position == query.terms.length) {
+                result.addAll(node.terms);
+                continue;
+            }
+            Term symbol = query.terms[position];
+            if (symbol instanceof Variable) {
+                if (mode.queryVariablesSkip) {
+                    for (Node next : skip(node)) {
+                        pending.push(new Visit(next, position + 1));
+                    }
+                } else {
+                    Node next = node.children.get(Key.VARIABLE);
+                    if (next != null) {
+                        pending.push(new Visit(next, position + 1));
+                    }
+                }
+                continue;
+            }
+            if (mode.storedVariablesSkip) {
+                Node wildcard = node.children.get(Key.VARIABLE);
+                if (wildcard != null) {
+                    pending.push(new Visit(wildcard, query.end[position]));
+                }
+            }
+            Node exact = node.children.get(Key.of(symbol));
+            if (exact != null) {
+                pending.push(new Visit(exact, position + 1));
+            }
+        }
+    }
+
+    /**
+     * Collects the nodes reached after consuming one complete stored term, with an explicit stack.
+     * @param start the node to start from
+     * @return the reached nodes
+     */
+    private static List<Node> skip(Node start) {
+        List<Node> result = new ArrayList<>();
+        Deque<Visit> pending = new ArrayDeque<>();
+        pending.push(new Visit(start, 1));
+        while (!pending.isEmpty()) {
+            Visit visit = pending.pop();
+            if (visit.count() == 0) {
+                result.add(visit.node());
+                continue;
+            }
+            for (Map.Entry<Key, Node> edge : visit.node().children.entrySet()) {
+                pending.push(new Visit(edge.getValue(), visit.count() - 1 + edge.getKey().arity()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A term flattened to its subterms in preorder, with the index just
+     * past each subterm so that a whole subterm can be skipped.
+     */
+    private record Preorder(Term[] terms, int[] end) {}
+
+    /**
+     * Flattens a term to preorder with an explicit stack. The buffers grow as
+     * needed, since the cached size saturates on heavily shared terms.
+     * @param term the term to flatten
+     * @return the preorder of its subterms
+     */
+    private static Preorder preorder(Term term) {
+        Term[] terms = new Term[16];
+        int[] end = new int[16];
+        int length = 0;
+        int[] open = new int[16];
+        int[] left = new int[16];
+        int depth = 0;
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(term);
+        while (!pending.isEmpty()) {
+            Term t = pending.pop();
+            if (length == terms.length) {
+                terms = Arrays.copyOf(terms, length * 2);
+                end = Arrays.copyOf(end, length * 2);
+            }
+            int position = length++;
+            terms[position] = t;
+            if (t instanceof Function f && f.getArity() > 0) {
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    pending.push(f.getArgumentOnPosition(i));
+                }
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                    left = Arrays.copyOf(left, depth * 2);
+                }
+                open[depth] = position;
+                left[depth] = f.getArity();
+                depth++;
+                continue;
+            }
+            end[position] = length;
+            while (depth > 0 && --left[depth - 1] == 0) {
+                depth--;
+                end[open[depth]] = length;
+            }
+        }
+        return new Preorder(Arrays.copyOf(terms, length), Arrays.copyOf(end, length));
+    }
+}
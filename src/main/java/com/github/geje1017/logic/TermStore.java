@@ -0,0 +1,547 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Symbols;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A flat store of terms encoded as int node ids in a single primitive array.
+ * A node occupies consecutive cells starting at its id: a header holding
+ * kind and arity, the symbol number (the {@link com.github.geje1017.term.Symbols}
+ * id for variables), and then either the argument ids (functions) or the
+ * binding slot (variables). Nodes are appended bottom-up, variables are shared
+ * by identity and constants by normalized symbol, and no object is allocated
+ * per node, so large term sets put almost no load on the garbage collector.
+ * <p>
+ * The cells live in an ordinary int array rather than an off-heap memory segment.
+ * A store is built for one problem and dropped with it, so the garbage collector
+ * reclaims it without an arena to close, the array grows by copying, and every
+ * access stays bounds-checked; an off-heap segment would add that lifecycle
+ * without changing the flat layout.
+ * <p>
+ * Unification runs directly on the ids and binds variables destructively
+ * in the store. Bindings made by a failed call are undone through a trail,
+ * which {@link #mark()} and {@link #undo(int)} also expose for backtracking.
+ * {@link #add(Term)}, {@link #toTerm(int)} and {@link #substitution()}
+ * convert to and from the {@link Term} objects used by the rest of the API.
+ * This class is not thread-safe.
+ */
+public final class TermStore {
+
+    private static final int VARIABLE = 0;
+    private static final int CONSTANT = 1;
+    private static final int FUNCTION = 2;
+    private static final int KIND_BITS = 2;
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int UNBOUND = -1;
+
+    private int[] cells = new int[256];
+    private int top;
+
+    private String[] symbols = new String[64];
+    private final Map<String, Integer> symbolNumbers = new HashMap<>();
+
+    private final Map<Variable, Integer> variableIds = new HashMap<>();
+    private final Map<Integer, Integer> constantIds = new HashMap<>();
+    private Variable[] variables = new Variable[16];
+    private int[] bindings = new int[16];
+    private int variableCount;
+
+    private int[] trail = new int[16];
+    private int trailTop;
+
+    private int[] stack = new int[32];
+    private int[] seen;
+    private int epoch;
+
+    /**
+     * Returns the id of the variable with the given name, adding it on first use.
+     * @param name the variable name
+     * @return the node id of the variable
+     */
+    public int variable(String name) {
+        return variable(new Variable(name));
+    }
+
+    /**
+     * Returns the id of a variable, adding it on first use. The variable itself is
+     * kept, so fresh variables are stored and converted back like named ones.
+     * @param variable the variable
+     * @return the node id of the variable
+     */
+    public int variable(Variable variable) {
+        Integer id = variableIds.get(variable);
+        if (id != null) {
+            return id;
+        }
+        int node = allocate(3);
+        cells[node] = VARIABLE;
+        cells[node + 1] = variable.getId();
+        cells[node + 2] = variableCount;
+        if (variableCount == bindings.length) {
+            bindings = Arrays.copyOf(bindings, variableCount * 2);
+            variables = Arrays.copyOf(variables, variableCount * 2);
+        }
+        bindings[variableCount] = UNBOUND;
+        variables[variableCount] = variable;
+        variableCount++;
+        variableIds.put(variable, node);
+        return node;
+    }
+
+    /**
+     * Returns the id of the constant with the given symbol, adding it on first use.
+     * The symbol is normalized to lower case like in {@link Constant}, so every
+     * spelling of a constant is the same node.
+     * @param name the constant symbol in any case
+     * @return the node id of the constant
+     */
+    public int constant(String name) {
+        int symbolId = Symbols.constant(name);
+        Integer id = constantIds.get(symbolId);
+        if (id != null) {
+            return id;
+        }
+        int node = allocate(2);
+        cells[node] = CONSTANT;
+        cells[node + 1] = symbol(Symbols.name(symbolId));
+        constantIds.put(symbolId, node);
+        return node;
+    }
+
+    /**
+     * Appends a function node over already stored arguments.
+     * @param name the function name
+     * @param arguments the node ids of the arguments
+     * @return the node id of the new function
+     */
+    public int function(String name, int... arguments) {
+        for (int argument : arguments) {
+            checkId(argument);
+        }
+        int node = allocate(2 + arguments.length);
+        cells[node] = FUNCTION | arguments.length << KIND_BITS;
+        cells[node + 1] = symbol(name);
+        System.arraycopy(arguments, 0, cells, node + 2, arguments.length);
+        return node;
+    }
+
+    /**
+     * Stores a term in postorder with an explicit stack. Subterms shared by
+     * identity in the term are stored once.
+     * @param term the term to store
+     * @return the node id of the term
+     */
+    public int add(Term term) {
+        Map<Term, Integer> stored = new IdentityHashMap<>();
+        int direct = known(term, stored);
+        if (direct >= 0) {
+            return direct;
+        }
+        Deque<AddFrame> open = new ArrayDeque<>();
+        open.push(new AddFrame((Function) term));
+        while (true) {
+            AddFrame top = open.peek();
+            if (top.next < top.arguments.length) {
+                Term arg = top.function.getArgumentOnPosition(top.next);
+                int id = known(arg, stored);
+                if (id < 0) {
+                    open.push(new AddFrame((Function) arg));
+                } else {
+                    top.arguments[top.next++] = id;
+                }
+                continue;
+            }
+            open.pop();
+            int node = function(top.function.getName(), top.arguments);
+            stored.put(top.function, node);
+            AddFrame parent = open.peek();
+            if (parent == null) {
+                return node;
+            }
+            parent.arguments[parent.next++] = node;
+        }
+    }
+
+    /**
+     * Returns the node of a term that needs no new function node.
+     * @param term the term
+     * @param stored the functions of the current call already stored
+     * @return the node id, or -1 for a function still to be stored
+     */
+    private int known(Term term, Map<Term, Integer> stored) {
+        if (term instanceof Variable v) {
+            return variable(v);
+        } else if (term instanceof Constant) {
+            return constant(term.toString());
+        }
+        Integer node = stored.get(term);
+        return node != null ? node : -1;
+    }
+
+    /**
+     * A function whose arguments are being stored.
+     */
+    private static final class AddFrame {
+
+        private final Function function;
+        private final int[] arguments;
+        private int next;
+
+        AddFrame(Function function) {
+            this.function = function;
+            this.arguments = new int[function.getArity()];
+        }
+    }
+
+    /**
+     * Converts a stored node back to a term, ignoring the current bindings.
+     * @param id the node id
+     * @return the term the node was built from
+     */
+    public Term toTerm(int id) {
+        checkId(id);
+        return build(id, false, new HashMap<>());
+    }
+
+    /**
+     * Converts a stored node to a term with all current bindings applied.
+     * @param id the node id
+     * @return the instantiated term
+     */
+    public Term resolve(int id) {
+        checkId(id);
+        return build(id, true, new HashMap<>());
+    }
+
+    /**
+     * Returns the current bindings as a substitution in idempotent form.
+     * @return the substitution mapping every bound variable to its resolved term
+     */
+    public Substitution substitution() {
+        Map<Variable, Term> result = new HashMap<>();
+        Map<Integer, Term> built = new HashMap<>();
+        for (int slot = 0; slot < variableCount; slot++) {
+            if (bindings[slot] != UNBOUND) {
+                result.put(variables[slot], build(bindings[slot], true, built));
+            }
+        }
+        return Substitution.of(result);
+    }
+
+    /**
+     * Unifies two stored nodes, binding variables in this store.
+     * On failure the bindings are left as they were before the call.
+     * @param left the node id of the left term
+     * @param right the node id of the right term
+     * @return true if the terms were unified
+     */
+    public boolean unify(int left, int right) {
+        checkId(left);
+        checkId(right);
+        int mark = trailTop;
+        int sp = 0;
+        stack = ensure(stack, 2);
+        stack[sp++] = right;
+        stack[sp++] = left;
+        while (sp > 0) {
+            int l = dereference(stack[--sp]);
+            int r = dereference(stack[--sp]);
+            if (l == r) {
+                continue;
+            }
+            int lh = cells[l];
+            int rh = cells[r];
+            if ((lh & KIND_MASK) == VARIABLE) {
+                if (!bind(l, r)) {
+                    undo(mark);
+                    return false;
+                }
+            } else if ((rh & KIND_MASK) == VARIABLE) {
+                if (!bind(r, l)) {
+                    undo(mark);
+                    return false;
+                }
+            } else if (lh != rh || cells[l + 1] != cells[r + 1] || (lh & KIND_MASK) == CONSTANT) {
+                undo(mark);
+                return false;
+            } else {
+                int arity = lh >>> KIND_BITS;
+                if (sp + 2 * arity > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, sp + 2 * arity));
+                }
+                for (int i = arity - 1; i >= 0; i--) {
+                    stack[sp++] = cells[r + 2 + i];
+                    stack[sp++] = cells[l + 2 + i];
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unifies a set of equations by storing them in a fresh store.
+     * @param equations the equations to unify
+     * @return a UnifyResult with the MGU on success and no trace
+     */
+    public static UnifyResult unify(Collection<Equation> equations) {
+        TermStore store = new TermStore();
+        int[] ids = new int[equations.size() * 2];
+        int i = 0;
+        for (Equation eq : equations) {
+            ids[i++] = store.add(eq.left());
+            ids[i++] = store.add(eq.right());
+        }
+        for (int k = 0; k < ids.length; k += 2) {
+            if (!store.unify(ids[k], ids[k + 1])) {
+                return UnifyResult.failure(Trace.of(TraceLevel.OFF));
+            }
+        }
+        return UnifyResult.success(store.substitution(), Trace.of(TraceLevel.OFF));
+    }
+
+    /**
+     * Removes all bindings, keeping the stored nodes.
+     */
+    public void reset() {
+        undo(0);
+    }
+
+    /**
+     * Returns the current height of the binding trail, to be passed to {@link #undo(int)}.
+     * @return the mark of the current bindings
+     */
+    public int mark() {
+        return trailTop;
+    }
+
+    /**
+     * Removes the bindings made after the given mark, in time proportional to their number.
+     * @param mark a value returned by {@link #mark()} that is not above the current height
+     * @throws IllegalArgumentException if the mark lies above the current trail height
+     */
+    public void undo(int mark) {
+        if (mark < 0 || mark > trailTop) {
+            throw new IllegalArgumentException("Invalid mark " + mark + " for trail height " + trailTop);
+        }
+        while (trailTop > mark) {
+            bindings[trail[--trailTop]] = UNBOUND;
+        }
+    }
+
+    /**
+     * Returns the number of int cells in use, a measure of the store's footprint.
+     * @return the number of used cells
+     */
+    public int cells() {
+        return top;
+    }
+
+    /**
+     * Follows variable bindings until an unbound variable or a non-variable node is reached.
+     * @param id the node id
+     * @return the representative node id
+     */
+    private int dereference(int id) {
+        while ((cells[id] & KIND_MASK) == VARIABLE) {
+            int bound = bindings[cells[id + 2]];
+            if (bound == UNBOUND) {
+                return id;
+            }
+            id = bound;
+        }
+        return id;
+    }
+
+    /**
+     * Binds an unbound variable after checking that it does not occur in the term.
+     * @param variable the dereferenced variable node
+     * @param term the dereferenced node to bind it to
+     * @return false if the occurs-check fails
+     */
+    private boolean bind(int variable, int term) {
+        if ((cells[term] & KIND_MASK) == FUNCTION && occurs(variable, term)) {
+            return false;
+        }
+        int slot = cells[variable + 2];
+        bindings[slot] = term;
+        trail = ensure(trail, trailTop + 1);
+        trail[trailTop++] = slot;
+        return true;
+    }
+
+    /**
+     * Searches a term for a variable, following bindings and visiting each node once.
+     * @param variable the unbound variable node
+     * @param term the node to search
+     * @return true if the variable occurs in the term
+     */
+    private boolean occurs(int variable, int term) {
+        if (seen == null || seen.length < cells.length) {
+            seen = new int[cells.length];
+            epoch = 0;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(seen, 0);
+            epoch = 1;
+        }
+        int[] pending = new int[16];
+        int sp = 0;
+        pending[sp++] = term;
+        while (sp > 0) {
+            int node = dereference(pending[--sp]);
+            if (node == variable) {
+                return true;
+            }
+            int header = cells[node];
+            if ((header & KIND_MASK) != FUNCTION || seen[node] == epoch) {
+                continue;
+            }
+            seen[node] = epoch;
+            int arity = header >>> KIND_BITS;
+            pending = ensure(pending, sp + arity);
+            for (int i = 0; i < arity; i++) {
+                pending[sp++] = cells[node + 2 + i];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the term for a node in postorder with an explicit stack,
+     * sharing the term objects of repeated nodes.
+     * @param id the node id
+     * @param resolve whether bound variables are replaced by their bindings
+     * @param built the terms already built, by node id
+     * @return the term
+     */
+    private Term build(int id, boolean resolve, Map<Integer, Term> built) {
+        if (resolve) {
+            id = dereference(id);
+        }
+        Term direct = built(id, built);
+        if (direct != null) {
+            return direct;
+        }
+        Deque<BuildFrame> open = new ArrayDeque<>();
+        open.push(new BuildFrame(id, cells[id] >>> KIND_BITS));
+        while (true) {
+            BuildFrame top = open.peek();
+            if (top.next < top.arguments.length) {
+                int arg = cells[top.node + 2 + top.next];
+                if (resolve) {
+                    arg = dereference(arg);
+                }
+                Term term = built(arg, built);
+                if (term == null) {
+                    open.push(new BuildFrame(arg, cells[arg] >>> KIND_BITS));
+                } else {
+                    top.arguments[top.next++] = term;
+                }
+                continue;
+            }
+            open.pop();
+            Term term = new Function(symbols[cells[top.node + 1]], top.arguments);
+            built.put(top.node, term);
+            BuildFrame parent = open.peek();
+            if (parent == null) {
+                return term;
+            }
+            parent.arguments[parent.next++] = term;
+        }
+    }
+
+    /**
+     * Returns the term of a node that needs no new function object.
+     * @param id the node id, dereferenced if bindings are applied
+     * @param built the terms already built, by node id
+     * @return the term, or null for a function node still to be built
+     */
+    private Term built(int id, Map<Integer, Term> built) {
+        switch (cells[id] & KIND_MASK) {
+            case VARIABLE:
+                return variables[cells[id + 2]];
+            case CONSTANT:
+                return new Constant(symbols[cells[id + 1]]);
+            default:
+                return built.get(id);
+        }
+    }
+
+    /**
+     * A function node whose argument terms are being built.
+     */
+    private static final class BuildFrame {
+
+        private final int node;
+        private final Term[] arguments;
+        private int next;
+
+        BuildFrame(int node, int arity) {
+            this.node = node;
+            this.arguments = new Term[arity];
+        }
+    }
+
+    /**
+     * Reserves cells for a new node.
+     * @param length the number of cells
+     * @return the id of the new node
+     */
+    private int allocate(int length) {
+        if (top + length > cells.length) {
+            long grown = Math.max((long) cells.length * 2, (long) top + length);
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Term store is full");
+            }
+            cells = Arrays.copyOf(cells, (int) grown);
+        }
+        int node = top;
+        top += length;
+        return node;
+    }
+
+    /**
+     * Returns the number of a symbol, adding it to the symbol table on first use.
+     * @param name the symbol
+     * @return its number
+     */
+    private int symbol(String name) {
+        Integer number = symbolNumbers.get(name);
+        if (number != null) {
+            return number;
+        }
+        int next = symbolNumbers.size();
+        if (next == symbols.length) {
+            symbols = Arrays.copyOf(symbols, next * 2);
+        }
+        symbols[next] = name;
+        symbolNumbers.put(name, next);
+        return next;
+    }
+
+    /**
+     * Checks that an id refers to a cell of this store.
+     * @param id the node id
+     * @throws IllegalArgumentException if the id is out of range
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= top) {
+            throw new IllegalArgumentException("Unknown term id: " + id);
+        }
+    }
+
+    private static int[] ensure(int[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, length));
+    }
+}
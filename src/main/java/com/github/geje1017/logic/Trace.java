@@ -0,0 +1,266 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Term;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Records the steps of a unification run as structured events and renders
+ * them to text on demand. A trace at level OFF ignores every call, so the
+ * unification loop can report to it unconditionally without allocating.
+ */
+final class Trace {
+
+    private static final Trace OFF = new Trace(TraceLevel.OFF);
+
+    private final TraceLevel level;
+    private final List<TraceEvent> events;
+    private boolean completed;
+
+    private int step;
+    private List<Equation> remaining;
+    private Substitution substitution;
+    private Term left;
+    private Term right;
+    private boolean open;
+    private Node queue;
+    private int queueSize;
+
+    private volatile List<String> lines;
+
+    private Trace(TraceLevel level) {
+        this.level = level;
+        this.events = level == TraceLevel.OFF ? List.of() : new ArrayList<>();
+    }
+
+    /**
+     * Returns a recorder for the given level.
+     * @param level the amount of detail to record
+     * @return the shared no-op trace for OFF, otherwise a fresh recorder
+     */
+    static Trace of(TraceLevel level) {
+        return level == TraceLevel.OFF ? OFF : new Trace(level);
+    }
+
+    /**
+     * Returns a trace consisting of already rendered lines.
+     * @param lines the trace messages
+     * @return a trace whose rendering is the given lines
+     */
+    static Trace rendered(List<String> lines) {
+        Trace trace = new Trace(TraceLevel.FULL);
+        trace.lines = List.copyOf(lines);
+        return trace;
+    }
+
+    /**
+     * Starts a new step, capturing the pending equations and the current
+     * substitution at level FULL. The pending equations are recorded as a
+     * persistent list sharing its tail with the previous step's, so only the
+     * equations pushed since then are copied; between two steps the collection
+     * may only lose its first element and gain elements at its head, as the
+     * work queue of the Martelli–Montanari algorithm does.
+     * @param step the one-based step number
+     * @param remaining the pending equations in order, or null if not available
+     * @param substitution the current substitution, or null if not available
+     */
+    void step(int step, Collection<Equation> remaining, Substitution substitution) {
+        if (level == TraceLevel.OFF) return;
+        this.step = step;
+        this.open = true;
+        this.left = null;
+        this.right = null;
+        if (level == TraceLevel.FULL) {
+            this.remaining = remaining == null ? null : snapshot(remaining);
+            this.substitution = substitution;
+        }
+    }
+
+    /**
+     * Records the current work queue by its change since the previous step.
+     * @param current the pending equations
+     * @return a view of the pending equations that is not affected by later changes
+     */
+    private List<Equation> snapshot(Collection<Equation> current) {
+        int size = current.size();
+        int pushed = size - queueSize + 1;
+        Node tail = queue == null ? null : queue.next;
+        if (queue == null || pushed < 0) {
+            pushed = size;
+            tail = null;
+        }
+        Equation[] head = new Equation[pushed];
+        Iterator<Equation> it = current.iterator();
+        for (int i = 0; i < pushed; i++) {
+            head[i] = it.next();
+        }
+        Node node = tail;
+        for (int i = pushed - 1; i >= 0; i--) {
+            node = new Node(head[i], node);
+        }
+        queue = node;
+        queueSize = size;
+        return new Snapshot(node, size);
+    }
+
+    /**
+     * Records the equation processed in the current step.
+     * @param left the left side
+     * @param right the right side
+     */
+    void equation(Term left, Term right) {
+        if (level == TraceLevel.OFF) return;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Completes the current step with the applied rule.
+     * @param rule the rule applied to the processed equation
+     */
+    void rule(TraceEvent.Rule rule) {
+        if (level == TraceLevel.OFF) return;
+        events.add(new TraceEvent(step, rule, left, right, remaining, substitution, null));
+        open = false;
+    }
+
+    /**
+     * Completes the current step with a failure, or records a failure after
+     * the last step if no step is in progress.
+     * @param error the failure message
+     */
+    void failure(String error) {
+        if (level == TraceLevel.OFF) return;
+        if (open) {
+            events.add(new TraceEvent(step, null, left, right, remaining, substitution, error));
+            open = false;
+        } else {
+            events.add(new TraceEvent(step, null, null, null, null, null, error));
+        }
+    }
+
+    /**
+     * Marks the run as successfully completed.
+     */
+    void success() {
+        if (level == TraceLevel.OFF) return;
+        completed = true;
+    }
+
+    /**
+     * Returns the recorded events.
+     * @return an unmodifiable list of events
+     */
+    List<TraceEvent> events() {
+        return level == TraceLevel.OFF ? List.of() : List.copyOf(events);
+    }
+
+    /**
+     * Renders the recorded events to text. The rendering is built on the
+     * first call and cached afterwards.
+     * @return an unmodifiable list of trace messages
+     */
+    List<String> lines() {
+        List<String> result = lines;
+        if (result == null) {
+            List<String> rendered = new ArrayList<>();
+            for (TraceEvent event : events) {
+                event.render(rendered);
+            }
+            if (completed) {
+                rendered.add("Unification completed successfully.");
+            }
+            result = List.copyOf(rendered);
+            lines = result;
+        }
+        return result;
+    }
+
+    /**
+     * A cell of a persistent list of equations. Deliberately not a record,
+     * so equality and hashing never recurse along the list.
+     */
+    private static final class Node {
+
+        private final Equation head;
+        private final Node next;
+
+        Node(Equation head, Node next) {
+            this.head = head;
+            this.next = next;
+        }
+    }
+
+    /**
+     * The pending equations of one step as an unmodifiable list over shared
+     * cells. The equations are only walked when the trace is rendered.
+     */
+    private static final class Snapshot extends AbstractList<Equation> {
+
+        private final Node first;
+        private final int size;
+
+        Snapshot(Node first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+
+        /**
+         * Returns the equation at the given position by walking the cells.
+         * @param index the zero-based position
+         * @return the equation
+         */
+        @Override
+        public Equation get(int index) {
+            Objects.checkIndex(index, size);
+            Node node = first;
+            for (int i = 0; i < index; i++) {
+                node = node.next;
+            }
+            return node.head;
+        }
+
+        /**
+         * Returns the number of pending equations.
+         * @return the size of the list
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Iterates the equations in a single pass over the cells.
+         * @return an iterator over the pending equations
+         */
+        @Override
+        public Iterator<Equation> iterator() {
+            return new Iterator<>() {
+                private Node node = first;
+                private int left = size;
+
+                @Override
+                public boolean hasNext() {
+                    return left > 0;
+                }
+
+                @Override
+                public Equation next() {
+                    if (left == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    Equation eq = node.head;
+                    node = node.next;
+                    left--;
+                    return eq;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Term;
+import java.util.List;
+
+/**
+ * A single recorded unification step. Only references to the involved terms
+ * are kept, so recording an event never formats a string.
+ * @param step the one-based step number
+ * @param rule the rule applied in this step, or null if the step failed
+ * @param left the left side of the processed equation, or null for a failure after the last step
+ * @param right the right side of the processed equation, or null for a failure after the last step
+ * @param remaining the equations pending before this step, or null if not recorded
+ * @param substitution the substitution before this step, or null if not recorded
+ * @param error the failure message if the step failed, otherwise null
+ */
+public record TraceEvent(int step,
+                         Rule rule,
+                         Term left,
+                         Term right,
+                         List<Equation> remaining,
+                         Substitution substitution,
+                         String error) {
+
+    /**
+     * The unification rules that can be applied in a step.
+     */
+    public enum Rule {
+        DELETE,
+        SWAP,
+        ELIMINATE,
+        DECOMPOSE
+    }
+
+    /**
+     * Appends the human-readable lines of this event to the given list.
+     * @param lines the list receiving the rendered lines
+     */
+    void render(List<String> lines) {
+        if (error == null || left != null) {
+            lines.add("Step " + step + ":");
+        }
+        if (remaining != null) {
+            lines.add("  Remaining equations: " + remaining);
+        }
+        if (substitution != null) {
+            lines.add("  Current substitution: " + substitution);
+        }
+        if (left != null) {
+            lines.add("Processing equation: " + left + " ≐ " + right);
+        }
+        if (rule != null) {
+            lines.add(switch (rule) {
+                case DELETE -> "  → DELETE (identical terms)";
+                case SWAP -> "  → SWAP (variable on right side)";
+                case ELIMINATE -> "  → ELIMINATE: " + left + " ↦ " + right;
+                case DECOMPOSE -> "  → DECOMPOSE (decompose function arguments)";
+            });
+        }
+        if (error != null) {
+            lines.add("Unification error at step " + step + ": " + error);
+        }
+    }
+}
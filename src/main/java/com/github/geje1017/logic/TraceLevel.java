@@ -0,0 +1,15 @@
+package com.github.geje1017.logic;
+
+/**
+ * Controls how much of a unification run is recorded in its trace.
+ * Events are stored as term references; strings are only built when
+ * the trace of a UnifyResult is actually read.
+ */
+public enum TraceLevel {
+    /** Records nothing; the unification loop allocates no trace data. */
+    OFF,
+    /** Records the step number, applied rule and processed equation of every step. */
+    RULES,
+    /** Additionally snapshots the remaining equations and the current substitution. */
+    FULL
+}
@@ -0,0 +1,57 @@
+package com.github.geje1017.logic;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event for a single {@link Unifier#unify} call.
+ * Only calls lasting at least the threshold are committed; it defaults to
+ * 20 ms and can be changed in the recording settings, e.g.
+ * {@code -XX:StartFlightRecording:com.github.geje1017.Unification#threshold=5ms}
+ * or {@code recording.enable(UnificationEvent.class).withThreshold(...)}.
+ * While no recording enables the event, creating and checking it is
+ * optimized away by the JIT.
+ */
+@Name("com.github.geje1017.Unification")
+@Label("Unification")
+@Category("Unification")
+@Description("A slow unification call with its rule counts")
+@Threshold("20 ms")
+public final class UnificationEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Equations")
+    int equations;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Substitution Size")
+    int substitutionSize;
+
+    @Label("Delete")
+    long deletes;
+
+    @Label("Swap")
+    long swaps;
+
+    @Label("Eliminate")
+    long eliminations;
+
+    @Label("Decompose")
+    long decompositions;
+
+    @Label("Occurs-Check Visits")
+    long occursCheckVisits;
+
+    @Label("Instantiated Nodes")
+    long instantiatedNodes;
+
+    @Label("Peak Queue Size")
+    int peakQueueSize;
+}
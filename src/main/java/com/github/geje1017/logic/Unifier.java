@@ -1,15 +1,14 @@
 // Unifier.java
 package com.github.geje1017.logic;
 
+import com.github.geje1017.logic.TraceEvent.Rule;
 import com.github.geje1017.term.Equation;
 import com.github.geje1017.term.Function;
 import com.github.geje1017.term.Term;
 import com.github.geje1017.term.Variable;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.List;
 
 /**
  * Provides static methods to unify a set of equations between terms,
@@ -30,6 +29,123 @@ public abstract class Unifier {
         public ClashException(String message) { super(message); }
     }
 
+    /**
+     * The algorithm used to solve a set of equations.
+     */
+    public enum Engine {
+        /** Rule-based Martelli–Montanari algorithm with eager substitution. */
+        MARTELLI_MONTANARI,
+        /** Huet-style union-find algorithm over a shared term graph. */
+        UNION_FIND
+    }
+
+    /**
+     * When the occurs-check of the Martelli–Montanari engine is performed.
+     */
+    public enum OccursCheck {
+        /** Checks every binding before it is added to the substitution. */
+        EAGER,
+        /**
+         * Adds bindings unchecked and verifies acyclicity of the whole
+         * substitution in batches: at geometrically spaced steps, which
+         * guarantees termination on cyclic inputs, and once on the final solved form.
+         */
+        DEFERRED
+    }
+
+    /**
+     * Immutable settings of a unification call.
+     * @param engine the algorithm to use
+     * @param traceLevel the amount of trace detail to record
+     * @param occursCheck when the Martelli–Montanari engine performs the occurs-check;
+     *                    the union-find engine always checks once on the solved graph
+     */
+    public record Options(Engine engine, TraceLevel traceLevel, OccursCheck occursCheck) {
+
+        /** Martelli–Montanari with a full trace and an eager occurs-check. */
+        public static final Options DEFAULT =
+                new Options(Engine.MARTELLI_MONTANARI, TraceLevel.FULL, OccursCheck.EAGER);
+
+        /**
+         * Returns a copy of these options using the given engine.
+         * @param engine the algorithm to use
+         * @return the updated options
+         */
+        public Options withEngine(Engine engine) {
+            return new Options(engine, traceLevel, occursCheck);
+        }
+
+        /**
+         * Returns a copy of these options using the given trace level.
+         * @param traceLevel the amount of trace detail to record
+         * @return the updated options
+         */
+        public Options withTraceLevel(TraceLevel traceLevel) {
+            return new Options(engine, traceLevel, occursCheck);
+        }
+
+        /**
+         * Returns a copy of these options using the given occurs-check policy.
+         * @param occursCheck when the occurs-check is performed
+         * @return the updated options
+         */
+        public Options withOccursCheck(OccursCheck occursCheck) {
+            return new Options(engine, traceLevel, occursCheck);
+        }
+    }
+
+    /**
+     * Unifies the provided collection of equations with the given engine.
+     * Both engines compute a most general unifier for the same inputs,
+     * but record different traces.
+     * @param equations the initial set of equations to unify
+     * @param engine the algorithm to use
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    public static UnifyResult unify(Collection<Equation> equations, Engine engine) {
+        return unify(equations, Options.DEFAULT.withEngine(engine));
+    }
+
+    /**
+     * Unifies the provided collection of equations, recording the trace
+     * only up to the given level.
+     * @param equations the initial set of equations to unify
+     * @param level the amount of trace detail to record
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    public static UnifyResult unify(Collection<Equation> equations, TraceLevel level) {
+        return unify(equations, Options.DEFAULT.withTraceLevel(level));
+    }
+
+    /**
+     * Unifies the provided collection of equations with the given engine,
+     * recording the trace only up to the given level.
+     * @param equations the initial set of equations to unify
+     * @param engine the algorithm to use
+     * @param level the amount of trace detail to record
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    public static UnifyResult unify(Collection<Equation> equations, Engine engine, TraceLevel level) {
+        return unify(equations, new Options(engine, level, OccursCheck.EAGER));
+    }
+
+    /**
+     * Unifies the provided collection of equations with the given options.
+     * @param equations the initial set of equations to unify
+     * @param options the engine, trace level and occurs-check policy to use
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    public static UnifyResult unify(Collection<Equation> equations, Options options) {
+        Trace trace = Trace.of(options.traceLevel());
+        Probe probe = Probe.start();
+        UnifyResult result = switch (options.engine()) {
+            case MARTELLI_MONTANARI -> unify(equations, trace, probe, options.occursCheck());
+            case UNION_FIND -> UnionFindUnifier.unify(equations, trace, probe);
+        };
+        probe.finish(options.engine(), equations.size(), result);
+        return result;
+    }
+
     /**
      * Unifies the provided collection of equations, returning a UnifyResult
      * containing a success flag, substitution, and a trace of steps.
@@ -38,59 +154,110 @@ public abstract class Unifier {
      * @return a UnifyResult with success status, MGU substitution, and trace
      */
     public static UnifyResult unify(Collection<Equation> equations) {
+        return unify(equations, Options.DEFAULT);
+    }
+
+    /**
+     * Runs the Martelli–Montanari algorithm, reporting every step to the given trace.
+     * @param equations the initial set of equations to unify
+     * @param trace the recorder for the applied steps
+     * @param probe the counter for metrics and flight recorder events
+     * @param occursCheck when the occurs-check is performed
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    private static UnifyResult unify(Collection<Equation> equations, Trace trace, Probe probe,
+                                     OccursCheck occursCheck) {
         Deque<Equation> workQueue = new ArrayDeque<>(equations);
         Substitution substitution = new Substitution();
-        List<String> trace = new ArrayList<>();
+        boolean eager = occursCheck == OccursCheck.EAGER;
+        long nextCheck = Math.max(16, 4L * equations.size());
         int step = 0;
 
         try {
             while (!workQueue.isEmpty()) {
                 step++;
-                trace.add(String.format("Step %d:", step));
-                trace.add("  Remaining equations: " + workQueue);
-                trace.add("  Current substitution: " + substitution);
-                substitution = process(workQueue, substitution, trace);
+                trace.step(step, workQueue, substitution);
+                probe.queue(workQueue.size());
+                substitution = process(workQueue, substitution, trace, probe, eager);
+                if (!eager && step == nextCheck) {
+                    checkAcyclic(substitution, probe);
+                    nextCheck *= 2;
+                }
+            }
+            if (!eager) {
+                checkAcyclic(substitution, probe);
             }
-            trace.add("Unification completed successfully.");
+            trace.success();
             return UnifyResult.success(substitution, trace);
         } catch (ClashException e) {
-            trace.add("Unification error at step " + step + ": " + e.getMessage());
+            trace.failure(e.getMessage());
             return UnifyResult.failure(trace);
         }
     }
 
+    /**
+     * Verifies that no variable occurs in its own resolved binding,
+     * the batched form of the occurs-check.
+     * @param substitution the substitution built so far
+     * @param probe the counter for the inspected bindings and variables
+     * @throws ClashException if a binding is cyclic
+     */
+    private static void checkAcyclic(Substitution substitution, Probe probe) throws ClashException {
+        int[] visits = new int[1];
+        Variable cyclic = substitution.findCycle(visits);
+        probe.occursCheck(visits[0]);
+        if (cyclic != null) {
+            throw new ClashException(
+                    String.format("Occurs-check failed: variable '%s' occurs in term '%s'",
+                            cyclic, substitution.lookup(cyclic))
+            );
+        }
+    }
+
     /**
      * Processes a single equation according to the unification rules:
      * Delete, Swap, Eliminate, Decompose.
      * @param work the queue of remaining equations
      * @param substitution the current substitution
-     * @param trace the list accumulating trace messages
+     * @param trace the recorder for the applied steps
+     * @param probe the counter for metrics and flight recorder events
+     * @param occursCheck whether to perform the occurs-check on elimination
      * @return the updated substitution after processing this equation
      * @throws ClashException if a conflict or occurs-check failure occurs
      */
     private static Substitution process(Deque<Equation> work,
                                         Substitution substitution,
-                                        List<String> trace) throws ClashException {
+                                        Trace trace,
+                                        Probe probe,
+                                        boolean occursCheck) throws ClashException {
         Equation eq = work.pop();
+        probe.instantiate(eq.left());
+        probe.instantiate(eq.right());
         Term left  = substitution.apply(eq.left());
         Term right = substitution.apply(eq.right());
 
-        trace.add(String.format("Processing equation: %s ≐ %s", left, right));
+        trace.equation(left, right);
 
-        if (isDelete(left, right)) {
-            trace.add("  → DELETE (identical terms)");
+        if (left.isGround() && right.isGround()) {
+            return handleGround(left, right, substitution, trace, probe);
+        } else if (isDelete(left, right)) {
+            trace.rule(Rule.DELETE);
+            probe.rule(Rule.DELETE);
             return substitution;
         } else if (isSwap(left, right)) {
-            trace.add("  → SWAP (variable on right side)");
+            trace.rule(Rule.SWAP);
+            probe.rule(Rule.SWAP);
             work.push(new Equation(right, left));
             return substitution;
         } else if (isEliminate(left)) {
-            trace.add(String.format("  → ELIMINATE: %s ↦ %s", left, right));
-            return handleEliminate((Variable) left, right, substitution);
+            trace.rule(Rule.ELIMINATE);
+            probe.rule(Rule.ELIMINATE);
+            return handleEliminate((Variable) left, right, substitution, probe, occursCheck);
         } else if (left instanceof Function lf && right instanceof Function rf) {
             checkFunctionName(lf, rf);
             checkFunctionArity(lf, rf);
-            trace.add("  → DECOMPOSE (decompose function arguments)");
+            trace.rule(Rule.DECOMPOSE);
+            probe.rule(Rule.DECOMPOSE);
             for (int i = 0; i < lf.getArity(); i++) {
                 work.push(new Equation(
                         lf.getArgumentOnPosition(i),
@@ -105,19 +272,52 @@ public abstract class Unifier {
         }
     }
 
+    /**
+     * Handles an equation between two ground terms. Such an equation either
+     * is deleted or cannot be unified at all, and the cached hash codes
+     * settle most clashes without comparing the terms.
+     * @param left the left ground term
+     * @param right the right ground term
+     * @param substitution the current substitution
+     * @param trace the recorder for the applied steps
+     * @param probe the counter for metrics and flight recorder events
+     * @return the unchanged substitution
+     * @throws ClashException if the terms differ
+     */
+    private static Substitution handleGround(Term left,
+                                             Term right,
+                                             Substitution substitution,
+                                             Trace trace,
+                                             Probe probe) throws ClashException {
+        if (left.hashCode() != right.hashCode() || !left.equals(right)) {
+            throw new ClashException(
+                    String.format("Term conflict: cannot unify %s with %s", left, right)
+            );
+        }
+        trace.rule(Rule.DELETE);
+        probe.rule(Rule.DELETE);
+        return substitution;
+    }
+
     /**
      * Handles the eliminate rule by performing an occurs-check and
      * extending the current substitution with the new binding.
      * @param variable the variable to bind
      * @param term the term to bind the variable to
      * @param substitution the current substitution
+     * @param probe the counter for the nodes inspected by the occurs-check
+     * @param occursCheck whether to perform the occurs-check now
      * @return the extended substitution
      * @throws ClashException if the occurs-check fails
      */
     private static Substitution handleEliminate(Variable variable,
                                                 Term term,
-                                                Substitution substitution) throws ClashException {
-        checkOccurrence(variable, term);
+                                                Substitution substitution,
+                                                Probe probe,
+                                                boolean occursCheck) throws ClashException {
+        if (occursCheck) {
+            checkOccurrence(variable, term, probe);
+        }
         return substitution.extend(variable, term);
     }
 
@@ -126,10 +326,20 @@ public abstract class Unifier {
      * preventing circular substitutions.
      * @param variable the variable to check
      * @param term the term in which to search for the variable
+     * @param probe the counter for the inspected nodes
      * @throws ClashException if the variable occurs in the term
      */
-    private static void checkOccurrence(Variable variable, Term term) throws ClashException {
-        if (term.getContainedVariables().contains(variable)) {
+    private static void checkOccurrence(Variable variable, Term term, Probe probe) throws ClashException {
+        int[] visits = new int[1];
+        boolean occurs;
+        if (term instanceof Function function) {
+            occurs = function.contains(variable, visits);
+        } else {
+            visits[0] = 1;
+            occurs = term.contains(variable);
+        }
+        probe.occursCheck(visits[0]);
+        if (occurs) {
             throw new ClashException(
                     String.format("Occurs-check failed: variable '%s' occurs in term '%s'", variable, term)
             );
@@ -156,7 +366,7 @@ public abstract class Unifier {
      */
     private static void checkFunctionName(Function lf,
                                           Function rf) throws ClashException {
-        if (!lf.getName().equals(rf.getName())) {
+        if (lf.getSymbol() != rf.getSymbol()) {
             throw new ClashException(
                     String.format("Function name mismatch: '%s' vs '%s'", lf.getName(), rf.getName())
             );
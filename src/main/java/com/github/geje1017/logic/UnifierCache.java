@@ -0,0 +1,301 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of unification results in front of {@link Unifier#unify(Collection, Unifier.Options)}.
+ * Equation sets are keyed up to variable naming: variables are renamed to canonical
+ * names in order of first occurrence, the canonical problem is looked up or solved,
+ * and the cached MGU is renamed back to the caller's variables.
+ * <p>
+ * The weight of an entry is the number of nodes of its canonical equations and
+ * substitution, and the total weight is bounded. The cache is split into
+ * independently locked segments, each evicting its least recently used entries.
+ * Results are computed outside the locks, so concurrent misses on the same
+ * problem may both unify. Cached results carry no trace.
+ */
+public final class UnifierCache {
+
+    /**
+     * Prefix of the canonical variable names.
+     */
+    private static final String CANONICAL_PREFIX = "_C";
+
+    private final Unifier.Options options;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * A snapshot of the cache statistics.
+     * @param hits the number of lookups answered from the cache
+     * @param misses the number of lookups that had to unify
+     * @param evictions the number of entries removed to respect the weight bound
+     * @param size the number of cached entries
+     * @param weight the total weight of the cached entries
+     */
+    public record Stats(long hits, long misses, long evictions, long size, long weight) {
+
+        /**
+         * Returns the fraction of lookups answered from the cache.
+         * @return the hit rate, or 0 if there were no lookups
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Creates a cache using the default unification options.
+     * @param maximumWeight the bound on the total weight of the cached entries
+     * @throws IllegalArgumentException if the bound is not positive
+     */
+    public UnifierCache(long maximumWeight) {
+        this(maximumWeight, Unifier.Options.DEFAULT);
+    }
+
+    /**
+     * Creates a cache for the given unification options. The trace level is ignored,
+     * since a cached result is shared by all variants of a problem.
+     * @param maximumWeight the bound on the total weight of the cached entries
+     * @param options the engine and occurs-check mode used on a miss
+     * @throws IllegalArgumentException if the bound is not positive
+     */
+    public UnifierCache(long maximumWeight, Unifier.Options options) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+        }
+        this.options = options.withTraceLevel(TraceLevel.OFF);
+        this.segments = createSegments(maximumWeight);
+    }
+
+    /**
+     * Unifies the equations, reusing the result of an earlier variant of the same problem.
+     * @param equations the equations to unify
+     * @return the unification result over the caller's variables, without trace
+     */
+    public UnifyResult unify(Collection<Equation> equations) {
+        Map<Variable, Variable> renaming = canonicalRenaming(equations);
+        Substitution toCanonical = Substitution.of(Collections.unmodifiableMap(renaming));
+        List<Equation> key = new ArrayList<>(equations.size());
+        for (Equation e : equations) {
+            key.add(new Equation(e.left().instantiate(toCanonical), e.right().instantiate(toCanonical)));
+        }
+
+        Segment segment = segments[spread(key.hashCode()) & (segments.length - 1)];
+        UnifyResult canonical = segment.get(key);
+        if (canonical != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            canonical = Unifier.unify(key, options);
+            segment.put(key, canonical, weigh(key, canonical));
+        }
+        return restore(canonical, renaming);
+    }
+
+    /**
+     * Returns the current statistics.
+     * @return a snapshot of the counters, size and weight
+     */
+    public Stats stats() {
+        long size = 0;
+        long weight = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+                weight += segment.weight;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, weight);
+    }
+
+    /**
+     * Removes all cached entries. The hit, miss and eviction counters are kept.
+     */
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+                segment.weight = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Maps every variable of the equations to a canonical variable, numbered
+     * in order of first occurrence in a left-to-right preorder traversal.
+     * @param equations the equations to canonicalise
+     * @return the renaming, in order of first occurrence
+     */
+    private static Map<Variable, Variable> canonicalRenaming(Collection<Equation> equations) {
+        Map<Variable, Variable> renaming = new LinkedHashMap<>();
+        Deque<Term> pending = new ArrayDeque<>();
+        for (Equation e : equations) {
+            pending.push(e.right());
+            pending.push(e.left());
+            while (!pending.isEmpty()) {
+                Term term = pending.pop();
+                if (term instanceof Variable v) {
+                    if (!renaming.containsKey(v)) {
+                        renaming.put(v, new Variable(CANONICAL_PREFIX + renaming.size()));
+                    }
+                } else if (term instanceof Function f && !f.isGround()) {
+                    for (int i = f.getArity() - 1; i >= 0; i--) {
+                        pending.push(f.getArgumentOnPosition(i));
+                    }
+                }
+            }
+        }
+        return renaming;
+    }
+
+    /**
+     * Renames a canonical result back to the caller's variables.
+     * @param canonical the result of the canonical problem
+     * @param renaming the renaming used to build the canonical problem
+     * @return the result over the original variables
+     */
+    private static UnifyResult restore(UnifyResult canonical, Map<Variable, Variable> renaming) {
+        if (!canonical.isSuccess()) {
+            return UnifyResult.failure(List.of());
+        }
+        Map<Variable, Term> inverse = new HashMap<>(renaming.size() * 2);
+        renaming.forEach((original, renamed) -> inverse.put(renamed, original));
+        Substitution fromCanonical = Substitution.of(inverse);
+        Map<Variable, Term> bindings = new HashMap<>(canonical.getSubstitution().size() * 2);
+        for (Map.Entry<Variable, Term> entry : canonical.getSubstitution().entrySet()) {
+            bindings.put((Variable) inverse.get(entry.getKey()), entry.getValue().instantiate(fromCanonical));
+        }
+        return UnifyResult.success(Substitution.of(bindings), List.of());
+    }
+
+    /**
+     * Computes the weight of an entry.
+     * @param key the canonical equations
+     * @param result their unification result
+     * @return the number of nodes of the equations and the bound terms
+     */
+    private static long weigh(List<Equation> key, UnifyResult result) {
+        long weight = 1;
+        for (Equation e : key) {
+            weight += e.left().size() + e.right().size();
+        }
+        for (Map.Entry<Variable, Term> entry : result.getSubstitution().entrySet()) {
+            weight += 1 + entry.getValue().size();
+        }
+        return weight;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits, which select the segment.
+     * @param h the hash code
+     * @return the spread hash
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates a power-of-two number of segments proportional to the core count,
+     * but few enough that each segment can hold a reasonable share of the weight.
+     * @param maximumWeight the total weight bound
+     * @return the segments, sharing the bound evenly
+     */
+    private Segment[] createSegments(long maximumWeight) {
+        long target = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2L, maximumWeight / 1024));
+        int count = Long.numberOfTrailingZeros(Long.highestOneBit(target));
+        Segment[] result = new Segment[1 << count];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Segment(maximumWeight / result.length);
+        }
+        return result;
+    }
+
+    /**
+     * One independently locked part of the cache, holding its entries in access order.
+     */
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<List<Equation>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maximumWeight;
+        private long weight;
+
+        Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        /**
+         * Looks up a canonical problem and marks it as recently used.
+         * @param key the canonical equations
+         * @return the cached result, or null if absent
+         */
+        UnifyResult get(List<Equation> key) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                return entry == null ? null : entry.result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stores a result and evicts least recently used entries until the segment fits its bound.
+         * Results heavier than the whole segment are not stored.
+         * @param key the canonical equations
+         * @param result their unification result
+         * @param entryWeight the weight of the entry
+         */
+        void put(List<Equation> key, UnifyResult result, long entryWeight) {
+            if (entryWeight > maximumWeight) {
+                return;
+            }
+            lock.lock();
+            try {
+                Entry previous = entries.put(key, new Entry(result, entryWeight));
+                weight += entryWeight - (previous == null ? 0 : previous.weight);
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (weight > maximumWeight) {
+                    weight -= eldest.next().weight;
+                    eldest.remove();
+                    evictions.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A cached result together with its weight.
+     * @param result the canonical unification result
+     * @param weight the weight charged against the bound
+     */
+    private record Entry(UnifyResult result, long weight) {
+    }
+}
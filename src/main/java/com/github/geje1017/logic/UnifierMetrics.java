@@ -0,0 +1,134 @@
+package com.github.geje1017.logic;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated counters over all {@link Unifier#unify} calls made while
+ * metrics are enabled. Each call counts into local fields and publishes
+ * them once when it finishes, so the hot path is unaffected by contention;
+ * while disabled, a call only reads one volatile flag.
+ */
+public abstract class UnifierMetrics {
+
+    private static volatile boolean enabled;
+
+    private static final LongAdder CALLS = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder DELETES = new LongAdder();
+    private static final LongAdder SWAPS = new LongAdder();
+    private static final LongAdder ELIMINATIONS = new LongAdder();
+    private static final LongAdder DECOMPOSITIONS = new LongAdder();
+    private static final LongAdder OCCURS_CHECK_VISITS = new LongAdder();
+    private static final LongAdder INSTANTIATED_NODES = new LongAdder();
+    private static final LongAdder SUBSTITUTION_BINDINGS = new LongAdder();
+    private static final LongAdder TOTAL_NANOS = new LongAdder();
+    private static final LongAccumulator PEAK_QUEUE_SIZE = new LongAccumulator(Math::max, 0);
+    private static final LongAccumulator MAX_NANOS = new LongAccumulator(Math::max, 0);
+
+    /**
+     * The aggregated counters at one point in time.
+     * @param calls the number of measured calls
+     * @param failures the number of calls that did not unify
+     * @param deletes the DELETE rule applications
+     * @param swaps the SWAP rule applications
+     * @param eliminations the ELIMINATE rule applications
+     * @param decompositions the DECOMPOSE rule applications
+     * @param occursCheckVisits the nodes or bindings inspected by occurs-checks
+     * @param instantiatedNodes the nodes of the terms substitutions were applied to
+     * @param peakQueueSize the largest work queue seen in any call
+     * @param substitutionBindings the total size of the resulting substitutions
+     * @param totalNanos the total wall time of all calls
+     * @param maxNanos the wall time of the slowest call
+     */
+    public record Snapshot(long calls,
+                           long failures,
+                           long deletes,
+                           long swaps,
+                           long eliminations,
+                           long decompositions,
+                           long occursCheckVisits,
+                           long instantiatedNodes,
+                           long peakQueueSize,
+                           long substitutionBindings,
+                           long totalNanos,
+                           long maxNanos) {}
+
+    /**
+     * Starts counting subsequent calls.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops counting; the aggregated values are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Checks whether calls are counted.
+     * @return true if metrics are enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current aggregated values. Calls finishing concurrently
+     * may be partially included.
+     * @return the snapshot of all counters
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(CALLS.sum(), FAILURES.sum(), DELETES.sum(), SWAPS.sum(),
+                ELIMINATIONS.sum(), DECOMPOSITIONS.sum(), OCCURS_CHECK_VISITS.sum(),
+                INSTANTIATED_NODES.sum(), PEAK_QUEUE_SIZE.get(), SUBSTITUTION_BINDINGS.sum(),
+                TOTAL_NANOS.sum(), MAX_NANOS.get());
+    }
+
+    /**
+     * Sets all counters back to zero.
+     */
+    public static void reset() {
+        for (LongAdder adder : new LongAdder[]{CALLS, FAILURES, DELETES, SWAPS, ELIMINATIONS,
+                DECOMPOSITIONS, OCCURS_CHECK_VISITS, INSTANTIATED_NODES, SUBSTITUTION_BINDINGS, TOTAL_NANOS}) {
+            adder.reset();
+        }
+        PEAK_QUEUE_SIZE.reset();
+        MAX_NANOS.reset();
+    }
+
+    /**
+     * Adds the counts of one finished call.
+     * @param success whether the call unified
+     * @param deletes the DELETE rule applications
+     * @param swaps the SWAP rule applications
+     * @param eliminations the ELIMINATE rule applications
+     * @param decompositions the DECOMPOSE rule applications
+     * @param occursCheckVisits the nodes or bindings inspected by occurs-checks
+     * @param instantiatedNodes the nodes of the terms substitutions were applied to
+     * @param peakQueueSize the largest work queue of the call
+     * @param substitutionSize the size of the resulting substitution
+     * @param nanos the wall time of the call
+     */
+    static void record(boolean success, long deletes, long swaps, long eliminations, long decompositions,
+                       long occursCheckVisits, long instantiatedNodes, int peakQueueSize,
+                       int substitutionSize, long nanos) {
+        CALLS.increment();
+        if (!success) {
+            FAILURES.increment();
+        }
+        DELETES.add(deletes);
+        SWAPS.add(swaps);
+        ELIMINATIONS.add(eliminations);
+        DECOMPOSITIONS.add(decompositions);
+        OCCURS_CHECK_VISITS.add(occursCheckVisits);
+        INSTANTIATED_NODES.add(instantiatedNodes);
+        SUBSTITUTION_BINDINGS.add(substitutionSize);
+        TOTAL_NANOS.add(nanos);
+        PEAK_QUEUE_SIZE.accumulate(peakQueueSize);
+        MAX_NANOS.accumulate(nanos);
+    }
+}
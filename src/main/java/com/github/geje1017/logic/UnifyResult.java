@@ -6,12 +6,13 @@ import java.util.List;
  * Encapsulates the result of a unification operation,
  * including whether it succeeded, the resulting substitution,
  * and the detailed trace of steps.
+ * The trace is kept as structured events and rendered to text on first access.
  */
 public class UnifyResult {
 
     private final boolean success;
     private final Substitution substitution;
-    private final List<String> trace;
+    private final Trace trace;
 
     /**
      * Private constructor used by factory methods.
@@ -19,10 +20,10 @@ public class UnifyResult {
      * @param substitution the computed substitution (or empty on failure)
      * @param trace the trace of applied unification steps
      */
-    private UnifyResult(boolean success, Substitution substitution, List<String> trace) {
+    private UnifyResult(boolean success, Substitution substitution, Trace trace) {
         this.success = success;
         this.substitution = substitution;
-        this.trace = List.copyOf(trace);
+        this.trace = trace;
     }
 
     /**
@@ -32,6 +33,16 @@ public class UnifyResult {
      * @return a successful UnifyResult
      */
     public static UnifyResult success(Substitution substitution, List<String> trace) {
+        return new UnifyResult(true, substitution, Trace.rendered(trace));
+    }
+
+    /**
+     * Creates a UnifyResult for a successful unification with a recorded trace.
+     * @param substitution the computed substitution (MGU)
+     * @param trace the recorded trace
+     * @return a successful UnifyResult
+     */
+    static UnifyResult success(Substitution substitution, Trace trace) {
         return new UnifyResult(true, substitution, trace);
     }
 
@@ -41,6 +52,15 @@ public class UnifyResult {
      * @return a failed UnifyResult
      */
     public static UnifyResult failure(List<String> trace) {
+        return new UnifyResult(false, new Substitution(), Trace.rendered(trace));
+    }
+
+    /**
+     * Creates a UnifyResult for a failed unification with a recorded trace.
+     * @param trace the trace recorded until failure
+     * @return a failed UnifyResult
+     */
+    static UnifyResult failure(Trace trace) {
         return new UnifyResult(false, new Substitution(), trace);
     }
 
@@ -61,11 +81,19 @@ public class UnifyResult {
     }
 
     /**
-     * Returns the detailed trace of unification steps.
-     * @return an unmodifiable list of trace messages
+     * Returns the detailed trace of unification steps, rendering it on the first call.
+     * @return an unmodifiable list of trace messages, empty if tracing was off
      */
     public List<String> getTrace() {
-        return trace;
+        return trace.lines();
+    }
+
+    /**
+     * Returns the structured events recorded during unification.
+     * @return an unmodifiable list of events, empty if tracing was off
+     */
+    public List<TraceEvent> getEvents() {
+        return trace.events();
     }
 
     /**
@@ -82,7 +110,7 @@ public class UnifyResult {
                 .append("Substitution: ")
                 .append(substitution)
                 .append("\nTrace:\n");
-        for (String stepMsg : trace) {
+        for (String stepMsg : getTrace()) {
             sb.append("  - ").append(stepMsg).append("\n");
         }
         return sb.toString();
@@ -0,0 +1,392 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.logic.TraceEvent.Rule;
+import com.github.geje1017.logic.Unifier.ClashException;
+import com.github.geje1017.term.Constant;
+import com.github.geje1017.term.Equation;
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Huet-style unification over a term graph. Every subterm becomes a node,
+ * equal variables and constants share a node, and unification merges
+ * equivalence classes with union-find (union by rank, path compression).
+ * The occurs-check is deferred to a single acyclicity check over the
+ * solved graph, so the overall cost is near-linear in the input size.
+ */
+abstract class UnionFindUnifier {
+
+    /**
+     * Unifies the provided collection of equations on a term graph.
+     * Trace events report the input terms of each processed pair.
+     * @param equations the initial set of equations to unify
+     * @param trace the recorder for the applied steps
+     * @param probe the counter for metrics and flight recorder events
+     * @return a UnifyResult with success status, MGU substitution, and trace
+     */
+    static UnifyResult unify(Collection<Equation> equations, Trace trace, Probe probe) {
+        Graph graph = new Graph();
+        Deque<Node> work = new ArrayDeque<>();
+        for (Equation eq : equations) {
+            work.push(graph.node(eq.right()));
+            work.push(graph.node(eq.left()));
+        }
+        int step = 0;
+
+        try {
+            while (!work.isEmpty()) {
+                step++;
+                Node left = work.pop();
+                Node right = work.pop();
+                trace.step(step, null, null);
+                trace.equation(left.term, right.term);
+                probe.queue(work.size() / 2);
+                process(left, right, work, trace, probe);
+            }
+            checkAcyclic(graph, probe);
+            trace.success();
+            return UnifyResult.success(graph.solvedForm(), trace);
+        } catch (ClashException e) {
+            trace.failure(e.getMessage());
+            return UnifyResult.failure(trace);
+        }
+    }
+
+    /**
+     * Merges the classes of two nodes, decomposing their schema functions
+     * if both classes already carry one.
+     * @param left the left node
+     * @param right the right node
+     * @param work the stack of pending node pairs
+     * @param trace the recorder for the applied steps
+     * @param probe the counter for metrics and flight recorder events
+     * @throws ClashException if the schemas of both classes conflict
+     */
+    private static void process(Node left, Node right,
+                                Deque<Node> work,
+                                Trace trace,
+                                Probe probe) throws ClashException {
+        Node l = find(left);
+        Node r = find(right);
+        if (l == r) {
+            trace.rule(Rule.DELETE);
+            probe.rule(Rule.DELETE);
+            return;
+        }
+        Node ls = l.schema;
+        Node rs = r.schema;
+        if (ls == null || rs == null) {
+            trace.rule(Rule.ELIMINATE);
+            probe.rule(Rule.ELIMINATE);
+            union(l, r);
+            return;
+        }
+        checkCompatible(ls, rs);
+        trace.rule(Rule.DECOMPOSE);
+        probe.rule(Rule.DECOMPOSE);
+        union(l, r);
+        for (int i = ls.args.length - 1; i >= 0; i--) {
+            work.push(rs.args[i]);
+            work.push(ls.args[i]);
+        }
+    }
+
+    /**
+     * Returns the representative of the node's class, compressing the path.
+     * @param node the node to look up
+     * @return the root of the node's equivalence class
+     */
+    private static Node find(Node node) {
+        Node root = node;
+        while (root.parent != root) {
+            root = root.parent;
+        }
+        while (node.parent != root) {
+            Node next = node.parent;
+            node.parent = root;
+            node = next;
+        }
+        return root;
+    }
+
+    /**
+     * Links two class roots by rank. The merged class keeps a schema if
+     * either side has one, and is named by the right side's variable,
+     * mirroring the X ↦ Y orientation of the ELIMINATE rule.
+     * @param l the root of the left class
+     * @param r the root of the right class
+     */
+    private static void union(Node l, Node r) {
+        Node schema = l.schema != null ? l.schema : r.schema;
+        Node varRep = r.varRep != null ? r.varRep : l.varRep;
+        Node root;
+        if (l.rank < r.rank) {
+            l.parent = r;
+            root = r;
+        } else {
+            r.parent = l;
+            if (l.rank == r.rank) l.rank++;
+            root = l;
+        }
+        root.schema = schema;
+        root.varRep = varRep;
+    }
+
+    /**
+     * Checks that two schema nodes have the same kind, name and arity.
+     * @param ls the left schema
+     * @param rs the right schema
+     * @throws ClashException if the schemas cannot be unified
+     */
+    private static void checkCompatible(Node ls, Node rs) throws ClashException {
+        if (ls.term instanceof Function lf && rs.term instanceof Function rf) {
+            if (lf.getSymbol() != rf.getSymbol()) {
+                throw new ClashException(
+                        String.format("Function name mismatch: '%s' vs '%s'", lf.getName(), rf.getName())
+                );
+            }
+            if (lf.getArity() != rf.getArity()) {
+                throw new ClashException(
+                        String.format(
+                                "Function arity mismatch: '%s' has %d arguments, '%s' has %d arguments",
+                                lf.getName(), lf.getArity(), rf.getName(), rf.getArity()
+                        )
+                );
+            }
+        } else if (!ls.term.equals(rs.term)) {
+            throw new ClashException(
+                    String.format("Term conflict: cannot unify %s with %s", ls.term, rs.term)
+            );
+        }
+    }
+
+    /**
+     * Verifies that the solved graph contains no cycle through schema
+     * functions, which is the deferred form of the occurs-check.
+     * @param graph the solved term graph
+     * @param probe the counter for the visited classes
+     * @throws ClashException if a variable class occurs in its own schema
+     */
+    private static void checkAcyclic(Graph graph, Probe probe) throws ClashException {
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node start : graph.variables.values()) {
+            Node root = find(start);
+            if (root.color != Node.WHITE) continue;
+            root.color = Node.GREY;
+            stack.push(root);
+            probe.occursCheck(1);
+            while (!stack.isEmpty()) {
+                Node current = stack.peek();
+                Node schema = current.schema;
+                if (schema == null || current.cursor == schema.args.length) {
+                    current.color = Node.BLACK;
+                    stack.pop();
+                    continue;
+                }
+                Node child = find(schema.args[current.cursor++]);
+                if (child.color == Node.GREY) {
+                    Term cyclic = child.varRep != null ? child.varRep.term : child.schema.term;
+                    throw new ClashException(
+                            String.format("Occurs-check failed: variable '%s' occurs in term '%s'",
+                                    cyclic, schema.term)
+                    );
+                }
+                if (child.color == Node.WHITE) {
+                    child.color = Node.GREY;
+                    stack.push(child);
+                    probe.occursCheck(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * The term graph built from the input equations.
+     */
+    private static final class Graph {
+
+        private final Map<Variable, Node> variables = new LinkedHashMap<>();
+        private final Map<Constant, Node> constants = new HashMap<>();
+        private final Map<Function, Node> functions = new IdentityHashMap<>();
+
+        /**
+         * Returns the node for the given term, creating nodes for unseen
+         * subterms. Variables and constants are shared by equality,
+         * functions by identity. Functions are translated in postorder
+         * with an explicit stack, so the depth of the term does not matter.
+         * @param term the term to translate
+         * @return the graph node of the term
+         */
+        Node node(Term term) {
+            if (!(term instanceof Function root)) {
+                return leaf(term);
+            }
+            Node known = functions.get(root);
+            if (known != null) {
+                return known;
+            }
+            Deque<Function> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Function f = pending.peek();
+                if (functions.containsKey(f)) {
+                    pending.pop();
+                    continue;
+                }
+                boolean ready = true;
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    if (f.getArgumentOnPosition(i) instanceof Function arg && !functions.containsKey(arg)) {
+                        pending.push(arg);
+                        ready = false;
+                    }
+                }
+                if (!ready) {
+                    continue;
+                }
+                Node[] args = new Node[f.getArity()];
+                for (int i = 0; i < args.length; i++) {
+                    Term arg = f.getArgumentOnPosition(i);
+                    args[i] = arg instanceof Function af ? functions.get(af) : leaf(arg);
+                }
+                functions.put(f, new Node(f, args));
+                pending.pop();
+            }
+            return functions.get(root);
+        }
+
+        /**
+         * Returns the shared node of a variable or constant.
+         * @param term the leaf term
+         * @return its graph node
+         */
+        private Node leaf(Term term) {
+            if (term instanceof Variable v) {
+                return variables.computeIfAbsent(v, Node::new);
+            }
+            return constants.computeIfAbsent((Constant) term, Node::new);
+        }
+
+        /**
+         * Reads the most general unifier off the solved graph.
+         * @return the substitution binding every variable whose class is
+         *         not named by itself
+         */
+        Substitution solvedForm() {
+            Map<Variable, Term> bindings = new HashMap<>();
+            variables.forEach((v, node) -> {
+                Term value = resolve(find(node));
+                if (value != v) {
+                    bindings.put(v, value);
+                }
+            });
+            return Substitution.of(bindings);
+        }
+
+        /**
+         * Builds the term denoted by a class, sharing results between
+         * classes and reusing input terms whose arguments are unchanged.
+         * Classes are resolved in postorder with an explicit stack; the
+         * graph is acyclic once the occurs-check has passed.
+         * @param root the class root
+         * @return the term denoted by the class
+         */
+        private Term resolve(Node root) {
+            if (root.resolved != null) {
+                return root.resolved;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.peek();
+                Node schema = node.schema;
+                if (node.resolved != null) {
+                    pending.pop();
+                    continue;
+                } else if (schema == null) {
+                    node.resolved = node.varRep.term;
+                    pending.pop();
+                    continue;
+                } else if (schema.args.length == 0) {
+                    node.resolved = schema.term;
+                    pending.pop();
+                    continue;
+                }
+                boolean ready = true;
+                for (int i = schema.args.length - 1; i >= 0; i--) {
+                    Node child = find(schema.args[i]);
+                    if (child.resolved == null) {
+                        pending.push(child);
+                        ready = false;
+                    }
+                }
+                if (!ready) {
+                    continue;
+                }
+                Function f = (Function) schema.term;
+                Term[] args = new Term[schema.args.length];
+                boolean changed = false;
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = find(schema.args[i]).resolved;
+                    changed |= args[i] != f.getArgumentOnPosition(i);
+                }
+                node.resolved = changed ? Function.withArguments(f, args) : f;
+                pending.pop();
+            }
+            return root.resolved;
+        }
+    }
+
+    /**
+     * A node of the term graph and, while it is a root, the state of its
+     * equivalence class.
+     */
+    private static final class Node {
+
+        private static final byte WHITE = 0;
+        private static final byte GREY = 1;
+        private static final byte BLACK = 2;
+
+        private final Term term;
+        private final Node[] args;
+        private Node parent = this;
+        private int rank;
+        private Node schema;
+        private Node varRep;
+        private byte color = WHITE;
+        private int cursor;
+        private Term resolved;
+
+        /**
+         * Creates a variable or constant node.
+         * @param term the leaf term
+         */
+        Node(Term term) {
+            this.term = term;
+            this.args = new Node[0];
+            if (term instanceof Variable) {
+                this.varRep = this;
+            } else {
+                this.schema = this;
+            }
+        }
+
+        /**
+         * Creates a function node over already translated arguments.
+         * @param term the function term
+         * @param args the argument nodes
+         */
+        Node(Function term, Node[] args) {
+            this.term = term;
+            this.args = args;
+            this.schema = this;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Term;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent table keyed by terms modulo variance, for memoizing subgoals.
+ * A lookup with any variant of a stored term finds its entry, and the first
+ * inserted variant is kept as the representative.
+ * <p>
+ * The table is a {@link ConcurrentHashMap} whose keys hash by
+ * {@link Variants#variantHash} and compare by {@link Variants#isVariant}.
+ * Insert-if-absent relies on the map's bin locking: putIfAbsent and computeIfAbsent
+ * lock only the bin of the key's variant hash, compare the key with the variants
+ * already in that bin and insert only if none matches. Concurrent inserts of variants
+ * of the same term therefore serialize on one bin and exactly one of them becomes the
+ * representative, while lookups take no lock at all. A computation passed to
+ * {@link #computeIfAbsent} runs while its bin is locked.
+ * @param <V> the type of the tabled values
+ */
+public final class VariantTable<V> {
+
+    private final ConcurrentHashMap<Key, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value stored for a variant of the term.
+     * @param term the term to look up
+     * @return the value, or null if no variant of the term is tabled
+     */
+    public V get(Term term) {
+        Entry<V> entry = entries.get(new Key(term));
+        return entry == null ? null : entry.value();
+    }
+
+    /**
+     * Returns the tabled variant of the term.
+     * @param term the term to look up
+     * @return the first inserted variant of the term, or null if none is tabled
+     */
+    public Term representative(Term term) {
+        Entry<V> entry = entries.get(new Key(term));
+        return entry == null ? null : entry.term();
+    }
+
+    /**
+     * Stores a value for the term unless a variant of it is already tabled.
+     * @param term the term to insert
+     * @param value the value to store
+     * @return the value already stored for a variant, or null if the term was inserted
+     */
+    public V putIfAbsent(Term term, V value) {
+        Entry<V> previous = entries.putIfAbsent(new Key(term), new Entry<>(term, value));
+        return previous == null ? null : previous.value();
+    }
+
+    /**
+     * Returns the value stored for a variant of the term, computing and storing it if absent.
+     * The computation runs at most once per variant class and must not modify this table.
+     * @param term the term to look up
+     * @param compute computes the value from the term on a miss
+     * @return the stored or computed value
+     */
+    public V computeIfAbsent(Term term, java.util.function.Function<? super Term, ? extends V> compute) {
+        return entries.computeIfAbsent(new Key(term), key -> new Entry<>(key.term, compute.apply(key.term))).value();
+    }
+
+    /**
+     * Returns the number of tabled variant classes.
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A term compared by variance, with its variant hash computed once.
+     */
+    private static final class Key {
+
+        private final Term term;
+        private final int hash;
+
+        Key(Term term) {
+            this.term = term;
+            this.hash = Variants.variantHash(term);
+        }
+
+        /**
+         * Checks whether the other key holds a variant of this key's term.
+         * @param o the object to compare
+         * @return true if the terms are variants
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && hash == other.hash && Variants.isVariant(term, other.term);
+        }
+
+        /**
+         * Returns the variant hash of the term.
+         * @return the cached hash
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A tabled value together with the representative variant.
+     * @param term the first inserted variant
+     * @param value the tabled value
+     */
+    private record Entry<V>(Term term, V value) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.geje1017.logic;
+
+import com.github.geje1017.term.Function;
+import com.github.geje1017.term.Symbols;
+import com.github.geje1017.term.Term;
+import com.github.geje1017.term.Variable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides static methods for comparing terms up to variable renaming.
+ * Two terms are variants if a bijection between their variables maps one onto
+ * the other, such as f(X,Y,X) and f(U,V,U). Ground subterms are compared and
+ * hashed by their cached structural hash, so only the non-ground skeleton is walked.
+ */
+public abstract class Variants {
+
+    /**
+     * Checks whether two terms are equal up to a consistent renaming of variables.
+     * @param s the first term
+     * @param t the second term
+     * @return true if some bijection between the variables maps s onto t
+     */
+    public static boolean isVariant(Term s, Term t) {
+        if (s == t) {
+            return true;
+        }
+        if (s.isGround() || t.isGround()) {
+            return s.equals(t);
+        }
+        if (s.size() != t.size() || s.depth() != t.depth()
+                || s.getContainedVariables().size() != t.getContainedVariables().size()) {
+            return false;
+        }
+        Map<Variable, Variable> forward = new HashMap<>();
+        Map<Variable, Variable> backward = new HashMap<>();
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(t);
+        pending.push(s);
+        while (!pending.isEmpty()) {
+            Term a = pending.pop();
+            Term b = pending.pop();
+            if (a instanceof Variable va) {
+                if (!(b instanceof Variable vb)) {
+                    return false;
+                }
+                Variable mapped = forward.putIfAbsent(va, vb);
+                if (mapped == null ? backward.putIfAbsent(vb, va) != null : !mapped.equals(vb)) {
+                    return false;
+                }
+            } else if (a.isGround() || b.isGround()) {
+                if (!a.equals(b)) {
+                    return false;
+                }
+            } else if (a instanceof Function fa && b instanceof Function fb && fa.isCompatibleWith(fb)) {
+                for (int i = fa.getArity() - 1; i >= 0; i--) {
+                    pending.push(fb.getArgumentOnPosition(i));
+                    pending.push(fa.getArgumentOnPosition(i));
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes a hash code that is equal for all variants of a term.
+     * Variables contribute their position in order of first occurrence instead of their name.
+     * <p>
+     * Only the non-ground skeleton is walked: a ground subterm contributes its cached
+     * hash code and is not entered, so the cost is proportional to the number of
+     * non-ground nodes rather than to the size of the term. Skeleton functions contribute
+     * their symbol and arity. For a ground term the result is its ordinary hash code.
+     * @param term the term to hash
+     * @return the variant-invariant hash
+     */
+    public static int variantHash(Term term) {
+        if (term.isGround()) {
+            return term.hashCode();
+        }
+        Map<Variable, Integer> numbering = new HashMap<>();
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(term);
+        int hash = 1;
+        while (!pending.isEmpty()) {
+            Term t = pending.pop();
+            if (t instanceof Variable v) {
+                Integer n = numbering.get(v);
+                if (n == null) {
+                    n = numbering.size();
+                    numbering.put(v, n);
+                }
+                hash = 31 * hash + (n + 1) * 0x9E3779B9;
+            } else if (t.isGround()) {
+                hash = 31 * hash + t.hashCode();
+            } else {
+                Function f = (Function) t;
+                hash = 31 * (31 * hash + Symbols.hash(f.getSymbol())) + f.getArity();
+                for (int i = f.getArity() - 1; i >= 0; i--) {
+                    pending.push(f.getArgumentOnPosition(i));
+                }
+            }
+        }
+        return hash;
+    }
+}
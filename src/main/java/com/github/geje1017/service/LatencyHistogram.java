@@ -0,0 +1,118 @@
+package com.github.geje1017.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds for computing percentiles.
+ * Values are counted in log-linear buckets: every power of two is split into
+ * 16 equal sub-buckets, so a reported percentile overestimates the true value
+ * by at most 1/16 while the histogram stays a fixed array of counters.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of a value kept below its leading one bit.
+     */
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 << SUB_BITS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * A summary of the recorded latencies, in nanoseconds.
+     * @param count the number of recorded values
+     * @param p50 the median
+     * @param p90 the 90th percentile
+     * @param p99 the 99th percentile
+     * @param p999 the 99.9th percentile
+     * @param max the largest recorded value
+     */
+    public record Snapshot(long count, long p50, long p90, long p99, long p999, long max) {
+
+        /**
+         * Formats the percentiles in microseconds.
+         * @return a one-line summary
+         */
+        @Override
+        public String toString() {
+            return String.format("count=%d p50=%dµs p90=%dµs p99=%dµs p99.9=%dµs max=%dµs",
+                    count, p50 / 1000, p90 / 1000, p99 / 1000, p999 / 1000, max / 1000);
+        }
+    }
+
+    /**
+     * Records one latency.
+     * @param nanos the latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the value below or at which the given fraction of the recorded latencies lie.
+     * @param fraction the percentile as a fraction between 0 and 1
+     * @return the upper bound of the bucket containing the percentile, or 0 if nothing was recorded
+     */
+    public long percentile(double fraction) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the count, the common percentiles and the maximum.
+     * @return a snapshot of this histogram
+     */
+    public Snapshot snapshot() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return new Snapshot(count, percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), max.get());
+    }
+
+    /**
+     * Maps a value to its bucket.
+     * @param value the non-negative value
+     * @return the index of the bucket counting the value
+     */
+    private static int bucket(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return ((shift + 1) << SUB_BITS) + sub;
+    }
+
+    /**
+     * Returns the largest value counted by a bucket.
+     * @param index the index of the bucket
+     * @return the inclusive upper bound of the bucket
+     */
+    private static long upperBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        long lower = (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
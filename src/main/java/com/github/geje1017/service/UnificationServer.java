@@ -0,0 +1,305 @@
+package com.github.geje1017.service;
+
+import com.github.geje1017.io.TermReader;
+import com.github.geje1017.io.TermWriter;
+import com.github.geje1017.logic.BatchUnifier;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.Equation;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A long-running unification service speaking a line protocol: every request
+ * line is one equation set in the notation of {@link TermReader}, and every
+ * response line is {@code ok {X↦a, ...}}, {@code fail} or {@code error <message>},
+ * in the order of the requests. Blank lines and lines starting with '#' are ignored.
+ * <p>
+ * Each connection is served on its own virtual threads, one reading requests and
+ * one writing responses, so a client may pipeline requests. Requests from all
+ * connections are queued and a single batcher hands them to
+ * {@link BatchUnifier#unifyAll} in groups of up to the batch size. The queue and
+ * each connection's pipeline are bounded: when they are full, reading from the
+ * connection stops, which pushes back on the client through the socket.
+ * The latency of every request, from parsing to its result, is recorded.
+ * Names in requests enter the global {@link com.github.geje1017.term.Symbols} table,
+ * which is bounded; once it is full, requests with new names are answered with an error.
+ */
+public final class UnificationServer implements AutoCloseable {
+
+    /**
+     * The default maximum number of requests unified together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * The default number of requests that may wait for the batcher.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    /**
+     * The number of requests a single connection may have in flight.
+     */
+    private static final int PIPELINE_DEPTH = 1024;
+
+    /**
+     * Marks the end of a connection's requests in its pipeline.
+     */
+    private static final CompletableFuture<UnifyResult> END = new CompletableFuture<>();
+
+    private final Unifier.Options options;
+    private final int batchSize;
+    private final BlockingQueue<Request> queue;
+    private final ForkJoinPool pool;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread batcher;
+
+    /**
+     * A queued equation set waiting for its result.
+     * @param equations the equations to unify
+     * @param start the time the request was received, in nanoseconds
+     * @param result completed with the unification result
+     */
+    private record Request(List<Equation> equations, long start, CompletableFuture<UnifyResult> result) {
+    }
+
+    /**
+     * Creates a service with the default batch size and queue capacity, unifying without traces.
+     */
+    public UnificationServer() {
+        this(Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF), DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a service and starts its batcher.
+     * @param options the options passed to every unification
+     * @param batchSize the maximum number of requests unified together
+     * @param queueCapacity the number of requests that may wait before submitters block
+     * @throws IllegalArgumentException if the batch size or capacity is not positive
+     */
+    public UnificationServer(Unifier.Options options, int batchSize, int queueCapacity) {
+        if (batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+        }
+        this.options = options;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.pool = ForkJoinPool.commonPool();
+        this.batcher = Thread.ofVirtual().name("unification-batcher").start(this::runBatches);
+    }
+
+    /**
+     * Queues an equation set for the next batch, waiting while the queue is full.
+     * @param equations the equations to unify
+     * @return a future completed with the result
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    public CompletableFuture<UnifyResult> submit(List<Equation> equations) throws InterruptedException {
+        return submit(equations, System.nanoTime());
+    }
+
+    /**
+     * Accepts connections on the socket until it is closed, serving each on a virtual thread.
+     * @param socket the bound server socket
+     * @throws IOException if accepting fails while the socket is still open
+     */
+    public void listen(ServerSocket socket) throws IOException {
+        while (!socket.isClosed()) {
+            Socket client;
+            try {
+                client = socket.accept();
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> {
+                try (client) {
+                    serve(client.getInputStream(), client.getOutputStream());
+                } catch (IOException | InterruptedException e) {
+                    // the client went away or the service is shutting down
+                }
+            });
+        }
+    }
+
+    /**
+     * Serves one connection until the end of its input, returning after the last response is written.
+     * @param in the request lines
+     * @param out the destination of the response lines
+     * @throws IOException if reading the requests fails
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException, InterruptedException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        BlockingQueue<CompletableFuture<UnifyResult>> pending = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        Thread responder = Thread.ofVirtual().start(() -> respond(pending, writer));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                CompletableFuture<UnifyResult> result;
+                try {
+                    result = submit(TermReader.parseEquations(trimmed), start);
+                } catch (TermReader.SyntaxException | IllegalStateException e) {
+                    result = CompletableFuture.failedFuture(e);
+                }
+                pending.put(result);
+            }
+        } finally {
+            pending.put(END);
+            responder.join();
+        }
+    }
+
+    /**
+     * Returns the distribution of request latencies so far.
+     * @return a snapshot of the latency histogram
+     */
+    public LatencyHistogram.Snapshot latencies() {
+        return latencies.snapshot();
+    }
+
+    /**
+     * Stops the batcher and the connection threads. Queued requests are cancelled.
+     */
+    @Override
+    public void close() {
+        batcher.interrupt();
+        connections.shutdownNow();
+        try {
+            batcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Request request; (request = queue.poll()) != null; ) {
+            request.result().cancel(false);
+        }
+    }
+
+    /**
+     * Queues an equation set received at the given time.
+     * @param equations the equations to unify
+     * @param start the time the request was received, in nanoseconds
+     * @return a future completed with the result
+     * @throws InterruptedException if interrupted while waiting for queue space
+     */
+    private CompletableFuture<UnifyResult> submit(List<Equation> equations, long start) throws InterruptedException {
+        CompletableFuture<UnifyResult> result = new CompletableFuture<>();
+        queue.put(new Request(equations, start, result));
+        return result;
+    }
+
+    /**
+     * Takes requests from the queue and unifies them in batches until interrupted.
+     * A batch holds every request that is waiting, up to the batch size, so batches
+     * grow under load and single requests are answered without delay when idle.
+     */
+    private void runBatches() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        List<List<Equation>> problems = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                for (Request request : batch) {
+                    problems.add(request.equations());
+                }
+                complete(batch, problems);
+                batch.clear();
+                problems.clear();
+            }
+        } catch (InterruptedException e) {
+            for (Request request : batch) {
+                request.result().cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Unifies one batch and completes its requests.
+     * @param batch the requests
+     * @param problems the equation sets of the requests, in the same order
+     */
+    private void complete(List<Request> batch, List<List<Equation>> problems) {
+        List<UnifyResult> results;
+        try {
+            results = BatchUnifier.unifyAll(problems, options, pool);
+        } catch (RuntimeException e) {
+            for (Request request : batch) {
+                request.result().completeExceptionally(e);
+            }
+            return;
+        }
+        long end = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            Request request = batch.get(i);
+            latencies.record(end - request.start());
+            request.result().complete(results.get(i));
+        }
+    }
+
+    /**
+     * Writes the responses of one connection in request order, flushing whenever
+     * no further response is ready. After a write error the remaining responses
+     * are still awaited, so the reading side never blocks on a full pipeline.
+     * @param pending the results in request order, terminated by {@link #END}
+     * @param writer the destination of the response lines
+     */
+    private static void respond(BlockingQueue<CompletableFuture<UnifyResult>> pending, Writer writer) {
+        boolean broken = false;
+        try {
+            for (CompletableFuture<UnifyResult> result; (result = pending.take()) != END; ) {
+                String error = null;
+                UnifyResult value = null;
+                try {
+                    value = result.join();
+                } catch (CompletionException | CancellationException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    error = String.valueOf(cause.getMessage()).replace('\n', ' ');
+                }
+                if (broken) {
+                    continue;
+                }
+                try {
+                    if (error != null) {
+                        writer.write("error ");
+                        writer.write(error);
+                    } else if (value.isSuccess()) {
+                        writer.write("ok ");
+                        TermWriter.write(value.getSubstitution(), writer);
+                    } else {
+                        writer.write("fail");
+                    }
+                    writer.write('\n');
+                    if (pending.isEmpty()) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    broken = true;
+                }
+            }
+            if (!broken) {
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            // the service is shutting down
+        } catch (IOException e) {
+            // the client went away
+        }
+    }
+}
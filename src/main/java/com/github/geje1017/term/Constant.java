@@ -2,22 +2,34 @@ package com.github.geje1017.term;
 
 import com.github.geje1017.logic.Substitution;
 import java.util.Set;
-import java.util.Objects;
 
 /**
  * Represents a constant symbol in a term.
  * Constants have no variables and are unaffected by substitutions.
+ * They are identified by the {@link Symbols} id of their lower-case symbol.
  */
 public final class Constant implements Term {
 
+    private final int id;
     private final String symbol;
+    private final int hash;
 
     /**
      * Constructs a constant with the given symbol.
      * @param symbol the constant symbol
      */
     public Constant(String symbol) {
-        this.symbol = symbol.toLowerCase();
+        this.id = Symbols.constant(symbol);
+        this.symbol = Symbols.name(id);
+        this.hash = Symbols.hash(id);
+    }
+
+    /**
+     * Returns the symbol id of this constant.
+     * @return the id
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -39,6 +51,43 @@ public final class Constant implements Term {
         return Set.of();
     }
 
+    /**
+     * Returns false because constants contain no variables.
+     * @param variable the variable to search for
+     * @return false
+     */
+    @Override
+    public boolean contains(Variable variable) {
+        return false;
+    }
+
+    /**
+     * Returns true because constants contain no variables.
+     * @return true
+     */
+    @Override
+    public boolean isGround() {
+        return true;
+    }
+
+    /**
+     * Returns 1 because a constant is a single node.
+     * @return 1
+     */
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    /**
+     * Returns 1 because a constant has no subterms.
+     * @return 1
+     */
+    @Override
+    public int depth() {
+        return 1;
+    }
+
     /**
      * Returns the symbol of this constant.
      * @return the constant symbol
@@ -49,24 +98,24 @@ public final class Constant implements Term {
     }
 
     /**
-     * Checks equality based on the constant symbol.
+     * Checks equality based on the constant id.
      * @param o the object to compare
-     * @return true if o is a Constant with the same symbol
+     * @return true if o is a Constant with the same id
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Constant)) return false;
         Constant other = (Constant) o;
-        return Objects.equals(symbol, other.symbol);
+        return id == other.id;
     }
 
     /**
-     * Computes hash code based on the constant symbol.
-     * @return the hash code of the symbol
+     * Returns the hash code based on the constant id.
+     * @return the spread id
      */
     @Override
     public int hashCode() {
-        return Objects.hash(symbol);
+        return hash;
     }
 }
\ No newline at end of file
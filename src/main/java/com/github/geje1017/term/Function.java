@@ -1,18 +1,54 @@
 package com.github.geje1017.term;
 
+import com.github.geje1017.io.TermWriter;
 import com.github.geje1017.logic.Substitution;
-import java.util.List;
-import java.util.Objects;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Represents a function application in a term, e.g., f(t1, t2, ...).
+ * Structural metadata (hash, groundness, size and depth) is computed once
+ * from the arguments' cached values at construction, in constant time per
+ * argument. The variable set is only merged at construction while it stays
+ * small; larger sets are collected on the first call of getContainedVariables,
+ * so building a term with many distinct variables stays linear.
+ * The arguments are kept in a single array owned by the function, and the
+ * name is kept as its {@link Symbols} id, so a function costs one object
+ * plus its argument array.
  */
 public final class Function implements Term {
 
-    private final String name;
-    private final List<Term> arguments;
+    /**
+     * Terms nested deeper than this are traversed with an explicit stack
+     * instead of recursion, so arbitrarily deep terms cannot overflow the call stack.
+     */
+    static final int RECURSION_LIMIT = 256;
+
+    /**
+     * The largest number of variable lookups spent on proving that a
+     * substitution leaves a subterm unchanged before simply visiting it.
+     */
+    private static final int DISJOINT_CHECK_LIMIT = 16;
+
+    /**
+     * The largest variable set merged from the arguments at construction.
+     * Bounding it keeps construction constant-time per argument.
+     */
+    private static final int VARIABLE_SET_LIMIT = 16;
+
+    private final int symbol;
+    private final Term[] arguments;
+    private final boolean interned;
+    private final int hash;
+    private final int size;
+    private final int depth;
+    private final boolean ground;
+    private Set<Variable> variables;
 
     /**
      * Constructs a function with the given name and arguments.
@@ -20,8 +56,102 @@ public final class Function implements Term {
      * @param arguments the argument terms
      */
     public Function(String name, Term... arguments) {
-        this.name = name;
-        this.arguments = List.of(arguments);
+        this(Symbols.id(name), arguments.clone(), false);
+    }
+
+    /**
+     * Constructs a function, recording whether it is built by the TermFactory.
+     * The function takes ownership of the argument array.
+     * @param name the function name
+     * @param arguments the argument terms, not modified afterwards
+     * @param interned true if this function is the canonical instance of its structure
+     */
+    Function(String name, Term[] arguments, boolean interned) {
+        this(Symbols.id(name), arguments, interned);
+    }
+
+    /**
+     * Constructs a function whose name has already been looked up in the {@link Symbols} table.
+     * The function takes ownership of the argument array.
+     * @param symbol the id of the name
+     * @param arguments the argument terms, not modified afterwards
+     * @param interned true if this function is the canonical instance of its structure
+     */
+    Function(int symbol, Term[] arguments, boolean interned) {
+        this.symbol = symbol;
+        this.arguments = arguments;
+        this.interned = interned;
+
+        int h = 31 + Symbols.hash(symbol);
+        long nodes = 1;
+        int maxDepth = 0;
+        boolean isGround = true;
+        Set<Variable> vars = Set.of();
+        boolean merged = false;
+        for (Term arg : arguments) {
+            h = 31 * h + arg.hashCode();
+            nodes += arg.size();
+            maxDepth = Math.max(maxDepth, arg.depth());
+            if (arg.isGround()) {
+                continue;
+            }
+            isGround = false;
+            if (vars == null) {
+                continue;
+            }
+            Set<Variable> argVars = smallVariables(arg);
+            if (argVars == null) {
+                vars = null;
+            } else if (vars.isEmpty()) {
+                vars = argVars;
+            } else if (argVars != vars) {
+                if (!merged) {
+                    vars = new HashSet<>(vars);
+                    merged = true;
+                }
+                vars.addAll(argVars);
+                if (vars.size() > VARIABLE_SET_LIMIT) {
+                    vars = null;
+                }
+            }
+        }
+        this.hash = h;
+        this.size = (int) Math.min(nodes, Integer.MAX_VALUE);
+        this.depth = maxDepth + 1;
+        this.ground = isGround;
+        this.variables = vars != null && merged ? Set.copyOf(vars) : vars;
+    }
+
+    /**
+     * Returns the variable set of a term if it is already known and small enough
+     * to be merged at construction.
+     * @param term a non-ground argument
+     * @return its variable set, or null if it is large or not collected yet
+     */
+    private static Set<Variable> smallVariables(Term term) {
+        Set<Variable> vars = term instanceof Function f ? f.variables : term.getContainedVariables();
+        return vars != null && vars.size() <= VARIABLE_SET_LIMIT ? vars : null;
+    }
+
+    /**
+     * Creates a function with the name of the given one and new arguments, reusing its
+     * symbol id instead of looking the name up again. The function takes ownership of
+     * the array, so it is not copied; callers rebuilding a term hand over an array
+     * they no longer modify.
+     * @param template the function whose name is used
+     * @param owned the argument terms, not modified afterwards
+     * @return the new function
+     */
+    public static Function withArguments(Function template, Term[] owned) {
+        return new Function(template.symbol, owned, false);
+    }
+
+    /**
+     * Returns whether this function is the canonical instance obtained from the TermFactory.
+     * @return true if this function is interned
+     */
+    public boolean isInterned() {
+        return interned;
     }
 
     /**
@@ -29,7 +159,15 @@ public final class Function implements Term {
      * @return the function name
      */
     public String getName() {
-        return name;
+        return Symbols.name(symbol);
+    }
+
+    /**
+     * Returns the {@link Symbols} id of the function's name.
+     * @return the symbol id
+     */
+    public int getSymbol() {
+        return symbol;
     }
 
     /**
@@ -37,7 +175,7 @@ public final class Function implements Term {
      * @return the arity of the function
      */
     public int getArity() {
-        return arguments.size();
+        return arguments.length;
     }
 
     /**
@@ -46,47 +184,271 @@ public final class Function implements Term {
      * @return the term at the given index
      */
     public Term getArgumentOnPosition(int index) {
-        return arguments.get(index);
+        return arguments[index];
     }
 
     /**
-     * Applies the substitution to each argument and returns a new Function.
+     * Applies the substitution to each argument. The result shares every
+     * unaffected subterm with this function, and this function itself is
+     * returned if no argument changes. Ground subterms and subterms whose
+     * variables are disjoint from the substitution's domain are not visited.
+     * Terms deeper than {@link #RECURSION_LIMIT} are rebuilt with an explicit stack.
      * @param substitution the substitution to apply
-     * @return a new Function with substituted arguments
+     * @return the instantiated term, or this function if the substitution does not affect it
      */
     @Override
     public Term instantiate(Substitution substitution) {
-        Term[] instantiated = arguments.stream()
-                .map(arg -> arg.instantiate(substitution))
-                .toArray(Term[]::new);
-        return new Function(name, instantiated);
+        if (isUnaffectedBy(substitution)) {
+            return this;
+        }
+        if (depth > RECURSION_LIMIT) {
+            return instantiateDeep(substitution);
+        }
+        Term[] instantiated = null;
+        for (int i = 0; i < arguments.length; i++) {
+            Term arg = arguments[i];
+            Term result = arg.instantiate(substitution);
+            if (result != arg && instantiated == null) {
+                instantiated = arguments.clone();
+            }
+            if (instantiated != null) {
+                instantiated[i] = result;
+            }
+        }
+        return instantiated == null ? this : new Function(symbol, instantiated, false);
     }
 
     /**
-     * Collects all variables contained in the argument terms.
-     * @return a set of variables appearing in this function
+     * Decides cheaply whether the substitution certainly leaves this function unchanged.
+     * The domain test is only made while it costs at most {@link #DISJOINT_CHECK_LIMIT}
+     * lookups, so it stays bounded on every level of the traversal.
+     * A function whose variable set has not been collected is visited.
+     * @param substitution the substitution to apply
+     * @return true if this function is ground or shares no variable with the domain
+     */
+    private boolean isUnaffectedBy(Substitution substitution) {
+        if (ground || substitution.size() == 0) {
+            return true;
+        }
+        Set<Variable> vars = variables;
+        return vars != null
+                && Math.min(vars.size(), substitution.size()) <= DISJOINT_CHECK_LIMIT
+                && !substitution.bindsAny(vars);
+    }
+
+    /**
+     * Instantiates this function in postorder with an explicit stack of
+     * partially rebuilt functions, so the call depth stays constant.
+     * @param substitution the substitution to apply
+     * @return the instantiated term, or this function if nothing changed
+     */
+    private Term instantiateDeep(Substitution substitution) {
+        Deque<Rebuild> open = new ArrayDeque<>();
+        open.push(new Rebuild(this));
+        while (true) {
+            Rebuild top = open.peek();
+            if (top.next < top.function.arguments.length) {
+                Term arg = top.function.arguments[top.next];
+                if (arg instanceof Function f && !f.isUnaffectedBy(substitution)) {
+                    open.push(new Rebuild(f));
+                } else {
+                    top.accept(arg.instantiate(substitution));
+                }
+                continue;
+            }
+            open.pop();
+            Function f = top.function;
+            Term built = top.arguments == null ? f : new Function(f.symbol, top.arguments, false);
+            Rebuild parent = open.peek();
+            if (parent == null) {
+                return built;
+            }
+            parent.accept(built);
+        }
+    }
+
+    /**
+     * A function whose arguments are being instantiated. The argument
+     * array is only allocated once an argument actually changes.
+     */
+    private static final class Rebuild {
+
+        private final Function function;
+        private Term[] arguments;
+        private int next;
+
+        Rebuild(Function function) {
+            this.function = function;
+        }
+
+        /**
+         * Stores the instantiated form of the next argument.
+         * @param result the instantiated argument
+         */
+        void accept(Term result) {
+            if (result != function.arguments[next] && arguments == null) {
+                arguments = function.arguments.clone();
+            }
+            if (arguments != null) {
+                arguments[next] = result;
+            }
+            next++;
+        }
+    }
+
+    /**
+     * Returns all variables contained in the argument terms. A large set is
+     * collected on the first call and cached; the race between concurrent
+     * first calls is benign because the set is immutable.
+     * @return the unmodifiable set of variables appearing in this function
      */
     @Override
     public Set<Variable> getContainedVariables() {
-        return arguments.stream()
-                .flatMap(arg -> arg.getContainedVariables().stream())
-                .collect(Collectors.toSet());
+        Set<Variable> vars = variables;
+        if (vars == null) {
+            vars = collectVariables();
+            variables = vars;
+        }
+        return vars;
+    }
+
+    /**
+     * Collects the variables with an explicit stack, visiting only the
+     * non-ground skeleton. Known variable sets of subterms are taken as a whole,
+     * and shared subterms are visited once.
+     * @return the unmodifiable set of variables
+     */
+    private Set<Variable> collectVariables() {
+        Set<Variable> found = new HashSet<>();
+        Set<Term> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            for (Term arg : pending.pop().arguments) {
+                if (arg.isGround()) {
+                    continue;
+                }
+                Set<Variable> known = arg instanceof Function f ? f.variables : arg.getContainedVariables();
+                if (known != null) {
+                    found.addAll(known);
+                } else if (visited.add(arg)) {
+                    pending.push((Function) arg);
+                }
+            }
+        }
+        return Set.copyOf(found);
+    }
+
+    /**
+     * Checks membership in the variable set if it is known, and otherwise searches
+     * the non-ground skeleton with an explicit stack, visiting shared subterms once.
+     * @param variable the variable to search for
+     * @return true if the variable occurs in an argument
+     */
+    @Override
+    public boolean contains(Variable variable) {
+        if (ground) {
+            return false;
+        }
+        Set<Variable> vars = variables;
+        if (vars != null) {
+            return vars.contains(variable);
+        }
+        return search(variable, new int[1]);
+    }
+
+    /**
+     * Checks whether the given variable occurs in this function like {@link #contains(Variable)},
+     * and adds the number of nodes inspected to the counter: this function itself,
+     * plus every argument examined while the non-ground skeleton is searched.
+     * @param variable the variable to search for
+     * @param visits a one-element counter the inspected nodes are added to
+     * @return true if the variable occurs in an argument
+     */
+    public boolean contains(Variable variable, int[] visits) {
+        visits[0]++;
+        if (ground) {
+            return false;
+        }
+        Set<Variable> vars = variables;
+        if (vars != null) {
+            return vars.contains(variable);
+        }
+        return search(variable, visits);
+    }
+
+    /**
+     * Searches the non-ground skeleton for the given variable with an explicit stack,
+     * visiting shared subterms once and stopping at arguments whose variable set is known.
+     * @param variable the variable to search for
+     * @param visits a one-element counter every examined argument is added to
+     * @return true if the variable occurs in an argument
+     */
+    private boolean search(Variable variable, int[] visits) {
+        Set<Term> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Function> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            for (Term arg : pending.pop().arguments) {
+                visits[0]++;
+                if (arg.isGround()) {
+                    continue;
+                }
+                Set<Variable> known = arg instanceof Function f ? f.variables : arg.getContainedVariables();
+                if (known != null) {
+                    if (known.contains(variable)) {
+                        return true;
+                    }
+                } else if (visited.add(arg)) {
+                    pending.push((Function) arg);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether this function contains no variables.
+     * @return true if no argument contains a variable
+     */
+    @Override
+    public boolean isGround() {
+        return ground;
+    }
+
+    /**
+     * Returns the number of nodes of this function's syntax tree.
+     * @return the node count, saturated at Integer.MAX_VALUE for heavily shared terms
+     */
+    @Override
+    public int size() {
+        return size;
     }
 
     /**
-     * Returns a string representation like f(t1,t2,...).
+     * Returns the nesting depth of this function.
+     * @return one more than the largest argument depth
+     */
+    @Override
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns a string representation like f(t1,t2,...),
+     * written into a single builder without recursion.
      * @return the string form of the function application
      */
     @Override
     public String toString() {
-        String args = arguments.stream()
-                .map(Object::toString)
-                .collect(Collectors.joining(",", "(", ")"));
-        return name + args;
+        return TermWriter.toString(this);
     }
 
     /**
      * Checks equality based on function name and argument list.
+     * Two distinct interned functions are never equal, so no walk is needed,
+     * and the cached hash and depth settle most other mismatches.
+     * Terms deeper than {@link #RECURSION_LIMIT} are compared with an explicit stack.
      * @param o the object to compare
      * @return true if o is a Function with the same name and arguments
      */
@@ -95,17 +457,59 @@ public final class Function implements Term {
         if (this == o) return true;
         if (!(o instanceof Function)) return false;
         Function other = (Function) o;
-        return Objects.equals(name, other.name)
-                && Objects.equals(arguments, other.arguments);
+        if (!sameShape(other)) return false;
+        if (depth > RECURSION_LIMIT) {
+            return equalsDeep(other);
+        }
+        return Arrays.equals(arguments, other.arguments);
+    }
+
+    /**
+     * Compares everything except the arguments.
+     * @param other the function to compare
+     * @return false if the functions certainly differ
+     */
+    private boolean sameShape(Function other) {
+        return hash == other.hash
+                && !(interned && other.interned)
+                && depth == other.depth
+                && arguments.length == other.arguments.length
+                && symbol == other.symbol;
+    }
+
+    /**
+     * Compares the argument trees pairwise with an explicit stack.
+     * @param other a function of the same shape
+     * @return true if all arguments are equal
+     */
+    private boolean equalsDeep(Function other) {
+        Deque<Term> pending = new ArrayDeque<>();
+        pending.push(other);
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            Term left = pending.pop();
+            Term right = pending.pop();
+            if (left == right) continue;
+            if (left instanceof Function lf && right instanceof Function rf) {
+                if (!lf.sameShape(rf)) return false;
+                for (int i = lf.arguments.length - 1; i >= 0; i--) {
+                    pending.push(rf.arguments[i]);
+                    pending.push(lf.arguments[i]);
+                }
+            } else if (!left.equals(right)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * Computes hash code based on name and arguments.
+     * Returns the hash code based on name and arguments, computed at construction.
      * @return the hash code of the function
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name, arguments);
+        return hash;
     }
 
     /**
@@ -114,7 +518,7 @@ public final class Function implements Term {
      * @return true if names and arities are identical
      */
     public boolean isCompatibleWith(Function other) {
-        return name.equals(other.name)
-                && arguments.size() == other.arguments.size();
+        return symbol == other.symbol
+                && arguments.length == other.arguments.length;
     }
 }
@@ -0,0 +1,175 @@
+package com.github.geje1017.term;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The global symbol table mapping function names, constant symbols and variable
+ * names to dense non-negative int ids. Every name is hashed and case-normalized
+ * once; afterwards terms compare, hash and clash-check their symbols as ints.
+ * <p>
+ * Fresh variables take negative ids from a counter and have no table entry,
+ * so generating them needs neither a lookup nor string formatting. The fresh
+ * variable with id -n prints as {@code _Gn}, and the variable name {@code _Gn}
+ * (n without leading zeros) is reserved for it: looking it up yields -n and moves
+ * the counter past n. Printed terms therefore read back to the same variables,
+ * and fresh variables created later never collide with names read earlier.
+ * <p>
+ * The table is global and never shrinks, because ids are stored in terms that may
+ * live anywhere. To keep a long-running process fed with ever new names from
+ * exhausting memory, it holds at most {@link #MAX_SYMBOLS} names, set by the system
+ * property {@code unification.symbols.max}, and refuses further names with an
+ * {@link IllegalStateException}. The caches of not yet normalized variable and
+ * constant spellings stop growing at the same size.
+ */
+public abstract class Symbols {
+
+    /**
+     * The largest number of distinct names the table holds.
+     */
+    public static final int MAX_SYMBOLS = Integer.getInteger("unification.symbols.max", 1 << 24);
+
+    private static final String FRESH_PREFIX = "_G";
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Integer> VARIABLES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Integer> CONSTANTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger FRESH = new AtomicInteger();
+    private static final Object LOCK = new Object();
+
+    private static volatile String[] names = new String[1024];
+    private static int count;
+
+    /**
+     * Returns the id of a name exactly as given, as used for function names.
+     * @param name the name
+     * @return the dense id of the name
+     * @throws IllegalStateException if the name is new and the table is full
+     */
+    public static int id(String name) {
+        Integer id = IDS.get(name);
+        return id != null ? id : IDS.computeIfAbsent(name, Symbols::allocate);
+    }
+
+    /**
+     * Returns the id of a variable name, normalized to upper case.
+     * @param name the variable name in any case
+     * @return the id of the upper-case name, or the negative id of the fresh variable printed as the name
+     * @throws IllegalStateException if the name is new and the table is full
+     */
+    public static int variable(String name) {
+        Integer id = VARIABLES.get(name);
+        if (id != null) {
+            return id;
+        }
+        String upper = name.toUpperCase();
+        int fresh = freshNumber(upper);
+        int resolved = fresh > 0 ? reserve(fresh) : id(upper);
+        if (VARIABLES.size() < MAX_SYMBOLS) {
+            VARIABLES.putIfAbsent(name, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the id of a constant symbol, normalized to lower case.
+     * @param symbol the constant symbol in any case
+     * @return the id of the lower-case symbol
+     * @throws IllegalStateException if the symbol is new and the table is full
+     */
+    public static int constant(String symbol) {
+        Integer id = CONSTANTS.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        int resolved = id(symbol.toLowerCase());
+        if (CONSTANTS.size() < MAX_SYMBOLS) {
+            CONSTANTS.putIfAbsent(symbol, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns a new negative id that is different from every other id.
+     * @return the id of a fresh variable
+     * @throws IllegalStateException if all negative ids are used up
+     */
+    public static int fresh() {
+        int id = FRESH.decrementAndGet();
+        if (id == Integer.MIN_VALUE) {
+            throw new IllegalStateException("Fresh variable ids exhausted");
+        }
+        return id;
+    }
+
+    /**
+     * Parses the number of a reserved fresh variable name.
+     * @param name an upper-case variable name
+     * @return n for the name {@code _Gn} with n positive and without leading zeros, otherwise 0
+     */
+    private static int freshNumber(String name) {
+        int length = name.length();
+        if (!name.startsWith(FRESH_PREFIX) || length == FRESH_PREFIX.length()
+                || length > FRESH_PREFIX.length() + 10 || name.charAt(FRESH_PREFIX.length()) == '0') {
+            return 0;
+        }
+        long n = 0;
+        for (int i = FRESH_PREFIX.length(); i < length; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            n = n * 10 + (c - '0');
+        }
+        return n < Integer.MAX_VALUE ? (int) n : 0;
+    }
+
+    /**
+     * Moves the fresh counter past a fresh id that was read from a name.
+     * @param n the number of the fresh variable
+     * @return its id -n
+     */
+    private static int reserve(int n) {
+        FRESH.accumulateAndGet(-n, Math::min);
+        return -n;
+    }
+
+    /**
+     * Returns the name of an id.
+     * @param id an id returned by this table
+     * @return the name, or null for fresh ids
+     */
+    public static String name(int id) {
+        return id < 0 ? null : names[id];
+    }
+
+    /**
+     * Spreads an id over the int range for use in hash codes.
+     * @param id the id
+     * @return a well-mixed hash of the id
+     */
+    public static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Assigns the next id to a new name.
+     * @param name the name
+     * @return its id
+     * @throws IllegalStateException if the table already holds {@link #MAX_SYMBOLS} names
+     */
+    private static int allocate(String name) {
+        synchronized (LOCK) {
+            if (count == MAX_SYMBOLS) {
+                throw new IllegalStateException("Symbol table is full: more than " + MAX_SYMBOLS + " distinct names");
+            }
+            if (count == names.length) {
+                names = Arrays.copyOf(names, Math.min(count * 2, MAX_SYMBOLS));
+            }
+            names[count] = name;
+            return count++;
+        }
+    }
+}
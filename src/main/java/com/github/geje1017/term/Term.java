@@ -22,4 +22,31 @@ public sealed interface Term permits Variable, Constant, Function {
      * @return an unmodifiable set of variables present in this term
      */
     Set<Variable> getContainedVariables();
+
+    /**
+     * Checks whether the given variable occurs in this term. Ground subterms
+     * are skipped and no intermediate collection is built.
+     * @param variable the variable to search for
+     * @return true if the variable occurs in this term
+     */
+    boolean contains(Variable variable);
+
+    /**
+     * Checks whether this term contains no variables. Ground terms are
+     * unaffected by every substitution.
+     * @return true if this term contains no variables
+     */
+    boolean isGround();
+
+    /**
+     * Returns the number of nodes of this term's syntax tree.
+     * @return the node count of this term
+     */
+    int size();
+
+    /**
+     * Returns the nesting depth of this term; variables and constants have depth 1.
+     * @return the depth of this term
+     */
+    int depth();
 }
\ No newline at end of file
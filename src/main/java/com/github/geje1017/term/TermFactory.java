@@ -0,0 +1,251 @@
+package com.github.geje1017.term;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Provides static methods to build hash-consed terms: structurally equal
+ * terms obtained from this factory are the same object, so equality of
+ * interned functions is a reference comparison.
+ * The intern table holds its terms weakly and is split into independently
+ * locked stripes, so threads building unrelated terms rarely contend.
+ */
+public abstract class TermFactory {
+
+    private static final Stripe[] STRIPES = createStripes();
+
+    /**
+     * Returns the canonical variable with the given name.
+     * @param name the name of the variable
+     * @return the interned variable
+     */
+    public static Variable variable(String name) {
+        return (Variable) canonical(new Variable(name));
+    }
+
+    /**
+     * Returns the canonical constant with the given symbol.
+     * @param symbol the constant symbol
+     * @return the interned constant
+     */
+    public static Constant constant(String symbol) {
+        return (Constant) canonical(new Constant(symbol));
+    }
+
+    /**
+     * Returns the canonical function application with the given name and arguments.
+     * Arguments that were not built by this factory are interned first.
+     * @param name the function name
+     * @param arguments the argument terms
+     * @return the interned function
+     */
+    public static Function function(String name, Term... arguments) {
+        Term[] canonicalArgs = new Term[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            canonicalArgs[i] = intern(arguments[i]);
+        }
+        return (Function) canonical(new Function(name, canonicalArgs, true));
+    }
+
+    /**
+     * Returns the canonical representative of an arbitrary term,
+     * interning all of its subterms in postorder with an explicit stack,
+     * so arbitrarily deep terms cannot overflow the call stack.
+     * @param term the term to intern
+     * @return the interned term, structurally equal to the given one
+     */
+    public static Term intern(Term term) {
+        if (!(term instanceof Function f) || f.isInterned()) {
+            return term instanceof Function ? term : canonical(term);
+        }
+        Deque<Frame> open = new ArrayDeque<>();
+        open.push(new Frame(f));
+        while (true) {
+            Frame top = open.peek();
+            if (top.next < top.arguments.length) {
+                Term arg = top.function.getArgumentOnPosition(top.next);
+                if (arg instanceof Function af && !af.isInterned()) {
+                    open.push(new Frame(af));
+                } else {
+                    top.arguments[top.next++] = arg instanceof Function ? arg : canonical(arg);
+                }
+                continue;
+            }
+            open.pop();
+            Term built = canonical(new Function(top.function.getSymbol(), top.arguments, true));
+            Frame parent = open.peek();
+            if (parent == null) {
+                return built;
+            }
+            parent.arguments[parent.next++] = built;
+        }
+    }
+
+    /**
+     * A function whose arguments are being interned.
+     */
+    private static final class Frame {
+
+        private final Function function;
+        private final Term[] arguments;
+        private int next;
+
+        Frame(Function function) {
+            this.function = function;
+            this.arguments = new Term[function.getArity()];
+        }
+    }
+
+    /**
+     * Looks up a candidate whose arguments are already canonical,
+     * inserting it if no equal term is present.
+     * @param candidate the term to look up
+     * @return the interned term equal to the candidate
+     */
+    private static Term canonical(Term candidate) {
+        int hash = spread(candidate.hashCode());
+        return STRIPES[hash & (STRIPES.length - 1)].intern(candidate, hash);
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits, which select the stripe.
+     * @param h the hash code
+     * @return the spread hash
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates a power-of-two number of stripes proportional to the core count.
+     * @return the stripes of the intern table
+     */
+    private static Stripe[] createStripes() {
+        int target = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+        int count = Integer.highestOneBit(target - 1) << 1;
+        Stripe[] stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    /**
+     * Checks whether two terms are equal, assuming the arguments of
+     * functions are already canonical and can be compared by reference.
+     * @param a the first term
+     * @param b the second term
+     * @return true if the terms are structurally equal
+     */
+    private static boolean shallowEquals(Term a, Term b) {
+        if (a instanceof Function fa && b instanceof Function fb) {
+            if (fa.getSymbol() != fb.getSymbol() || fa.getArity() != fb.getArity()) {
+                return false;
+            }
+            for (int i = 0; i < fa.getArity(); i++) {
+                if (fa.getArgumentOnPosition(i) != fb.getArgumentOnPosition(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a.equals(b);
+    }
+
+    /**
+     * A weakly referenced entry of a stripe's chained hash table.
+     */
+    private static final class Entry extends WeakReference<Term> {
+
+        private final int hash;
+        private Entry next;
+
+        Entry(Term term, int hash, Entry next, ReferenceQueue<Term> queue) {
+            super(term, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * One independently locked segment of the intern table. Entries whose
+     * terms have been collected are removed on the next access.
+     */
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReferenceQueue<Term> queue = new ReferenceQueue<>();
+        private Entry[] table = new Entry[16];
+        private int size;
+
+        /**
+         * Returns the interned term equal to the candidate, inserting the candidate if absent.
+         * @param candidate the term to look up
+         * @param hash the spread hash of the candidate
+         * @return the interned term
+         */
+        Term intern(Term candidate, int hash) {
+            lock.lock();
+            try {
+                expungeStale();
+                int index = (hash >>> 8) & (table.length - 1);
+                for (Entry e = table[index]; e != null; e = e.next) {
+                    if (e.hash == hash) {
+                        Term existing = e.get();
+                        if (existing != null && shallowEquals(existing, candidate)) {
+                            return existing;
+                        }
+                    }
+                }
+                table[index] = new Entry(candidate, hash, table[index], queue);
+                if (++size > table.length - (table.length >>> 2)) {
+                    resize();
+                }
+                return candidate;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Removes entries whose terms have been garbage collected.
+         */
+        private void expungeStale() {
+            for (Reference<? extends Term> ref; (ref = queue.poll()) != null; ) {
+                Entry stale = (Entry) ref;
+                int index = (stale.hash >>> 8) & (table.length - 1);
+                Entry prev = null;
+                for (Entry e = table[index]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) table[index] = e.next;
+                        else prev.next = e.next;
+                        size--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Doubles the table size and redistributes the live entries.
+         */
+        private void resize() {
+            Entry[] old = table;
+            Entry[] grown = new Entry[old.length << 1];
+            for (Entry head : old) {
+                for (Entry e = head; e != null; ) {
+                    Entry next = e.next;
+                    int index = (e.hash >>> 8) & (grown.length - 1);
+                    e.next = grown[index];
+                    grown[index] = e;
+                    e = next;
+                }
+            }
+            table = grown;
+        }
+    }
+}
@@ -2,22 +2,56 @@ package com.github.geje1017.term;
 
 import com.github.geje1017.logic.Substitution;
 import java.util.Set;
-import java.util.Objects;
 
 /**
  * Represents a variable in a term.
- * Variables are identified by a string name.
+ * Variables are identified by the {@link Symbols} id of their upper-case name,
+ * so equality and hashing are int operations.
  */
 public final class Variable implements Term {
 
-    private final String name;
+    private final int id;
+    private final int hash;
+    private final Set<Variable> variables;
+    private String name;
 
     /**
-     * Constructs a new variable with the given name.
+     * Constructs a new variable with the given name. The reserved name
+     * {@code _Gn} denotes the fresh variable printed that way.
      * @param name the name of the variable
+     * @throws IllegalStateException if the name is new and the symbol table is full
      */
     public Variable(String name) {
-        this.name = name.toUpperCase();
+        this(Symbols.variable(name));
+    }
+
+    /**
+     * Constructs a variable with the given symbol id.
+     * @param id the id of the variable
+     */
+    private Variable(int id) {
+        this.id = id;
+        this.hash = Symbols.hash(id);
+        this.variables = Set.of(this);
+        this.name = Symbols.name(id);
+    }
+
+    /**
+     * Creates a variable distinct from all others, without building a name.
+     * Its name {@code _G<n>} is only formatted when it is printed, and
+     * reading that name back yields this variable.
+     * @return a fresh variable
+     */
+    public static Variable fresh() {
+        return new Variable(Symbols.fresh());
+    }
+
+    /**
+     * Returns the symbol id of this variable, negative for fresh variables.
+     * @return the id
+     */
+    public int getId() {
+        return id;
     }
 
     /**
@@ -33,11 +67,48 @@ public final class Variable implements Term {
 
     /**
      * Returns a set containing only this variable.
-     * @return a singleton set of this variable
+     * @return the cached singleton set of this variable
      */
     @Override
     public Set<Variable> getContainedVariables() {
-        return Set.of(this);
+        return variables;
+    }
+
+    /**
+     * Checks whether the given variable is this variable.
+     * @param variable the variable to search for
+     * @return true if the variable is this variable
+     */
+    @Override
+    public boolean contains(Variable variable) {
+        return equals(variable);
+    }
+
+    /**
+     * Returns false because a variable is never ground.
+     * @return false
+     */
+    @Override
+    public boolean isGround() {
+        return false;
+    }
+
+    /**
+     * Returns 1 because a variable is a single node.
+     * @return 1
+     */
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    /**
+     * Returns 1 because a variable has no subterms.
+     * @return 1
+     */
+    @Override
+    public int depth() {
+        return 1;
     }
 
     /**
@@ -46,28 +117,33 @@ public final class Variable implements Term {
      */
     @Override
     public String toString() {
-        return name;
+        String n = name;
+        if (n == null) {
+            n = "_G" + -id;
+            name = n;
+        }
+        return n;
     }
 
     /**
-     * Checks equality based on variable name.
+     * Checks equality based on the variable id.
      * @param o the object to compare
-     * @return true if o is a Variable with the same name
+     * @return true if o is a Variable with the same id
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Variable)) return false;
         Variable other = (Variable) o;
-        return Objects.equals(name, other.name);
+        return id == other.id;
     }
 
     /**
-     * Computes hash code based on variable name.
-     * @return the hash code of the name
+     * Returns the hash code based on the variable id.
+     * @return the spread id
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return hash;
     }
 }
\ No newline at end of file
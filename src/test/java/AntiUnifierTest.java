@@ -0,0 +1,97 @@
+import com.github.geje1017.logic.AntiUnifier;
+import com.github.geje1017.logic.Variants;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AntiUnifierTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Constant c;         // c
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        c = new Constant("c");
+    }
+
+    @Test
+	// Tests: lgg of f(a,g(b),a) and f(c,g(b),c)
+	// Result: Should be f(V,g(b),V) with one variable for the repeated pair (a,c)
+    void testRepeatedPairSharesVariable() {
+        AntiUnifier.Generalization g = AntiUnifier.antiUnify(
+                new Function("f", a, new Function("g", b), a),
+                new Function("f", c, new Function("g", b), c));
+        Function term = (Function) g.term();
+        assertInstanceOf(Variable.class, term.getArgumentOnPosition(0));
+        assertEquals(term.getArgumentOnPosition(0), term.getArgumentOnPosition(2));
+        assertEquals(new Function("g", b), term.getArgumentOnPosition(1));
+        assertEquals(new Function("f", a, new Function("g", b), a), g.left().apply(term));
+        assertEquals(new Function("f", c, new Function("g", b), c), g.right().apply(term));
+    }
+
+    @Test
+	// Tests: lgg of f(a) and g(a), and of two identical terms
+	// Result: Should be a single variable, and the term itself
+    void testClashAndIdentity() {
+        assertInstanceOf(Variable.class, AntiUnifier.generalize(new Function("f", a), new Function("g", a)));
+        Term term = new Function("f", new Variable("X"), a);
+        assertSame(term, AntiUnifier.generalize(term, term));
+    }
+
+    @Test
+	// Tests: lgg of g-towers of height 60 over a and over b, built with shared arguments
+	// Result: Should finish immediately and yield the tower over one variable, still shared
+    void testSharedSubtermsAreMemoized() {
+        Term left = a;
+        Term right = b;
+        for (int i = 0; i < 60; i++) {
+            left = new Function("g", left, left);
+            right = new Function("g", right, right);
+        }
+        Function g = (Function) AntiUnifier.generalize(left, right);
+        assertSame(g.getArgumentOnPosition(0), g.getArgumentOnPosition(1));
+        assertEquals(61, g.depth());
+        assertEquals(1, g.getContainedVariables().size());
+    }
+
+    @Test
+	// Tests: Parallel lgg of 5000 terms f(c_i, a, h(c_i))
+	// Result: Should be f(V, a, h(V))
+    void testGeneralizeAllInParallel() {
+        List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Constant ci = new Constant("c" + i);
+            terms.add(new Function("f", ci, a, new Function("h", ci)));
+        }
+        Function g = (Function) AntiUnifier.generalizeAll(terms, new ForkJoinPool(4));
+        Term v = g.getArgumentOnPosition(0);
+        assertInstanceOf(Variable.class, v);
+        assertEquals(new Function("f", v, a, new Function("h", v)), g);
+        assertThrows(IllegalArgumentException.class, () -> AntiUnifier.generalizeAll(List.of()));
+    }
+
+    @Test
+	// Tests: lgg of f(f(...f(a)...)) and f(f(...f(b)...)) nested 100000 deep
+	// Result: Should be f(f(...f(V)...)) with V->a and V->b, without overflowing the stack
+    void testDeepTerms() {
+        Term left = a;
+        Term right = b;
+        for (int i = 0; i < 100_000; i++) {
+            left = new Function("f", left);
+            right = new Function("f", right);
+        }
+        AntiUnifier.Generalization g = AntiUnifier.antiUnify(left, right);
+        assertEquals(left, g.left().apply(g.term()));
+        assertEquals(right, g.right().apply(g.term()));
+        assertEquals(100_000 + 1, g.term().size());
+        assertTrue(Variants.isVariant(g.term(), AntiUnifier.generalize(left, right)));
+    }
+}
@@ -0,0 +1,64 @@
+import com.github.geje1017.logic.BatchUnifier;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchUnifierTest {
+
+    /**
+     * Builds f(X_i, g(a)) = f(c_i, Y_i) for even i and f(a) = f(b) for odd i.
+     */
+    private static List<List<Equation>> problems(int count) {
+        List<List<Equation>> problems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                problems.add(List.of(new Equation(
+                        new Function("f", new Variable("X" + i), new Function("g", new Constant("a"))),
+                        new Function("f", new Constant("c" + i), new Variable("Y" + i)))));
+            } else {
+                problems.add(List.of(new Equation(
+                        new Function("f", new Constant("a")), new Function("f", new Constant("b")))));
+            }
+        }
+        return problems;
+    }
+
+    @Test
+	// Tests: 10000 mixed problems on a pool of 4 workers
+	// Result: Results should match serial unification in input order
+    void testResultsInInputOrder() {
+        List<List<Equation>> problems = problems(10_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<UnifyResult> results = BatchUnifier.unifyAll(problems,
+                    Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF), pool);
+            assertEquals(problems.size(), results.size());
+            for (int i = 0; i < problems.size(); i++) {
+                UnifyResult serial = Unifier.unify(problems.get(i));
+                assertEquals(serial.isSuccess(), results.get(i).isSuccess());
+                assertEquals(serial.getSubstitution().entrySet(), results.get(i).getSubstitution().entrySet());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+	// Tests: unordered streaming of 1000 problems
+	// Result: Every problem should be reported exactly once with its result
+    void testUnorderedStreaming() {
+        List<List<Equation>> problems = problems(1_000);
+        Map<Collection<Equation>, UnifyResult> seen = Collections.synchronizedMap(new IdentityHashMap<>());
+        BatchUnifier.unifyUnordered(problems.stream(), Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF),
+                ForkJoinPool.commonPool(), (problem, result) -> assertNull(seen.put(problem, result)));
+        assertEquals(problems.size(), seen.size());
+        assertEquals(500, seen.values().stream().filter(UnifyResult::isSuccess).count());
+    }
+}
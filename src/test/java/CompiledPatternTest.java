@@ -0,0 +1,74 @@
+import com.github.geje1017.logic.CompiledPattern;
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPatternTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Variable x;         // X
+    private Variable y;         // Y
+    private Variable z;         // Z
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        x = new Variable("X");
+        y = new Variable("Y");
+        z = new Variable("Z");
+    }
+
+    @Test
+	// Tests: p(X, f(Y, a), X) against p(g(b), f(h(Z), a), g(b)) and against p(Z, f(b, a), Z)
+	// Result: Should produce the same substitutions as Unifier.unify
+    void testAgreesWithUnifier() {
+        Term pattern = new Function("p", x, new Function("f", y, a), x);
+        CompiledPattern compiled = CompiledPattern.compile(pattern);
+        assertSameAsUnifier(compiled, new Function("p", new Function("g", b), new Function("f", new Function("h", z), a), new Function("g", b)));
+        assertSameAsUnifier(compiled, new Function("p", z, new Function("f", b, a), z));
+    }
+
+    @Test
+	// Tests: p(X, f(Y, a), X) against a wrong functor, a wrong constant and a non-linear mismatch
+	// Result: Should fail like Unifier.unify
+    void testFailures() {
+        CompiledPattern compiled = CompiledPattern.compile(new Function("p", x, new Function("f", y, a), x));
+        assertFalse(compiled.unify(new Function("q", a, new Function("f", b, a), a)).isSuccess());
+        assertFalse(compiled.unify(new Function("p", a, new Function("f", b, b), a)).isSuccess());
+        assertFalse(compiled.unify(new Function("p", a, new Function("f", b, a), b)).isSuccess());
+        assertFalse(compiled.unify(new Function("p", a, new Function("f", b), a)).isSuccess());
+    }
+
+    @Test
+	// Tests: Subjects that need the generic unifier: a subject variable against f(Y, a), repeated X against
+	//        g(Z) and g(b), and a subject sharing X with the pattern so that the occurs-check fails
+	// Result: Should produce the same results as Unifier.unify
+    void testFallbackCases() {
+        CompiledPattern compiled = CompiledPattern.compile(new Function("p", x, new Function("f", y, a), x));
+        assertSameAsUnifier(compiled, new Function("p", a, z, a));
+        assertSameAsUnifier(compiled, new Function("p", new Function("g", z), new Function("f", b, a), new Function("g", b)));
+        assertSameAsUnifier(compiled, new Function("p", new Function("g", x), new Function("f", b, a), z));
+        assertSameAsUnifier(CompiledPattern.compile(x), y);
+    }
+
+    /**
+     * Compares the compiled program with the generic unifier on one subject.
+     * @param compiled the compiled pattern
+     * @param subject the subject term
+     */
+    private static void assertSameAsUnifier(CompiledPattern compiled, Term subject) {
+        UnifyResult expected = Unifier.unify(List.of(new Equation(compiled.getPattern(), subject)), TraceLevel.OFF);
+        UnifyResult actual = compiled.unify(subject);
+        assertEquals(expected.isSuccess(), actual.isSuccess());
+        assertEquals(expected.getSubstitution().entrySet(), actual.getSubstitution().entrySet());
+    }
+}
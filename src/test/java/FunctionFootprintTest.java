@@ -0,0 +1,69 @@
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FunctionFootprintTest {
+
+    @Test
+	// Tests: The field layout of Function
+	// Result: Should hold no name string or list, only the symbol id, the argument array and cached metadata
+    void testInstanceLayout() {
+        ClassLayout layout = ClassLayout.parseClass(Function.class);
+        assertTrue(layout.instanceSize() <= 40, layout.toPrintable());
+        assertTrue(layout.fields().stream().noneMatch(f -> f.typeClass().equals("java.lang.String")
+                || f.typeClass().equals("java.util.List")), layout.toPrintable());
+    }
+
+    @Test
+	// Tests: The objects reachable from f(a), g(a,b) and h(a,b,c) but not from their arguments or the shared empty set
+	// Result: Each function should own exactly two objects, itself and its argument array
+    void testFunctionOwnsTwoObjects() {
+        Constant a = new Constant("a"), b = new Constant("b"), c = new Constant("c");
+        Term[][] argumentLists = {{a}, {a, b}, {a, b, c}};
+        for (Term[] args : argumentLists) {
+            Function f = new Function("f" + args.length, args);
+            Object[] shared = Arrays.copyOf(args, args.length + 1, Object[].class);
+            shared[args.length] = Set.of();
+            GraphLayout own = GraphLayout.parseInstance(f).subtract(GraphLayout.parseInstance(shared));
+            assertEquals(2, own.totalCount(), own.toFootprint());
+            long arraySize = own.totalSize() - ClassLayout.parseClass(Function.class).instanceSize();
+            assertTrue(arraySize <= 16 + 8L * args.length, own.toFootprint());
+        }
+    }
+
+    @Test
+	// Tests: A cons-list of 20000 distinct variables, built innermost first
+	// Result: Construction should take linear time and memory, and the variables should still be found
+    void testDeepTermWithDistinctVariables() {
+        int n = 20_000;
+        Variable[] variables = new Variable[n];
+        for (int i = 0; i < n; i++) {
+            variables[i] = new Variable("V" + i);
+        }
+        Term list = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Term t = new Constant("nil");
+            for (int i = n - 1; i >= 0; i--) {
+                t = new Function("cons", variables[i], t);
+            }
+            return t;
+        });
+        int measured = 2_000;
+        Term suffix = list;
+        for (int i = 0; i < n - measured; i++) {
+            suffix = ((Function) suffix).getArgumentOnPosition(1);
+        }
+        long own = GraphLayout.parseInstance(suffix)
+                .subtract(GraphLayout.parseInstance((Object[]) Arrays.copyOfRange(variables, n - measured, n))).totalSize();
+        assertTrue(own < 100L * measured, "Retained " + own + " bytes");
+        assertFalse(list.isGround());
+        assertTrue(list.contains(variables[n - 1]));
+        assertFalse(list.contains(new Variable("W")));
+        assertEquals(n, list.getContainedVariables().size());
+    }
+}
@@ -0,0 +1,34 @@
+import com.github.geje1017.service.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+	// Tests: Recording the latencies 1..10000 ns
+	// Result: Percentiles should lie within 1/16 above the exact values
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertTrue(snapshot.p50() >= 5_000 && snapshot.p50() <= 5_000 * 17 / 16, "p50 " + snapshot.p50());
+        assertTrue(snapshot.p99() >= 9_900 && snapshot.p99() <= 10_000, "p99 " + snapshot.p99());
+        assertEquals(10_000, snapshot.max());
+    }
+
+    @Test
+	// Tests: An empty histogram, and one holding a single huge and a single negative value
+	// Result: Should report zeros when empty, clamp the negative value and cap percentiles at the maximum
+    void testEdgeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0));
+    }
+}
@@ -0,0 +1,74 @@
+import com.github.geje1017.logic.Matcher;
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatcherTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Variable x;         // X
+    private Variable y;         // Y
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        x = new Variable("X");
+        y = new Variable("Y");
+    }
+
+    @Test
+	// Tests: f(X,g(Y)) against f(a,g(X))
+	// Result: Should bind X->a and Y->X simultaneously, reproducing the subject
+    void testMatchBindsPatternVariablesOnly() {
+        Term pattern = new Function("f", x, new Function("g", y));
+        Term subject = new Function("f", a, new Function("g", x));
+        Substitution sigma = Matcher.match(pattern, subject).orElseThrow();
+        assertEquals(a, sigma.lookup(x));
+        assertEquals(x, sigma.lookup(y));
+        assertEquals(subject, sigma.apply(pattern));
+    }
+
+    @Test
+	// Tests: f(X,X) against f(a,b), and f(a) against f(X)
+	// Result: Inconsistent bindings and subject variables should not match
+    void testMatchFailures() {
+        assertTrue(Matcher.match(new Function("f", x, x), new Function("f", a, b)).isEmpty());
+        assertFalse(Matcher.matches(new Function("f", a), new Function("f", x)));
+        assertFalse(Matcher.matches(new Function("f", x), new Function("g", a)));
+        assertTrue(Matcher.matches(new Function("f", x, x), new Function("f", a, a)));
+    }
+
+    @Test
+	// Tests: X = f(X) as matching problem
+	// Result: Should match without occurs-check, binding X->f(X)
+    void testNoOccursCheck() {
+        Term subject = new Function("f", x);
+        Substitution sigma = Matcher.match(x, subject).orElseThrow();
+        assertEquals(subject, sigma.lookup(x));
+    }
+
+    @Test
+	// Tests: f(f(...f(X, a)...)) against f(f(...f(g(Y), a)...)) nested 100000 deep
+	// Result: Should bind X->g(Y) without overflowing the stack, and reject a subject with b at the bottom
+    void testDeepTerms() {
+        Term pattern = new Function("f", x, a);
+        Term subject = new Function("f", new Function("g", y), a);
+        Term other = new Function("f", new Function("g", y), b);
+        for (int i = 0; i < 100_000; i++) {
+            pattern = new Function("f", pattern, a);
+            subject = new Function("f", subject, a);
+            other = new Function("f", other, a);
+        }
+        Optional<Substitution> sigma = Matcher.match(pattern, subject);
+        assertTrue(sigma.isPresent());
+        assertEquals(new Function("g", y), sigma.get().lookup(x));
+        assertFalse(Matcher.matches(pattern, other));
+    }
+}
@@ -0,0 +1,74 @@
+import com.github.geje1017.logic.Matcher;
+import com.github.geje1017.logic.MatchingAutomaton;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingAutomatonTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Variable x;         // X
+    private Variable y;         // Y
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        x = new Variable("X");
+        y = new Variable("Y");
+    }
+
+    @Test
+	// Tests: The patterns f(X,Y), f(a,Y), f(X,X), g(X) and X against the subject f(a,a)
+	// Result: Should report f(X,Y), f(a,Y), f(X,X) and X with their substitutions, but not g(X)
+    void testReportsAllMatches() {
+        MatchingAutomaton automaton = MatchingAutomaton.compile(List.of(
+                new Function("f", x, y), new Function("f", a, y), new Function("f", x, x), new Function("g", x), x));
+        List<MatchingAutomaton.Match> matches = automaton.match(new Function("f", a, a));
+        assertEquals(List.of(0, 1, 2, 4), matches.stream().map(MatchingAutomaton.Match::index).toList());
+        assertEquals(a, matches.get(0).substitution().apply(y));
+        assertEquals(a, matches.get(2).substitution().apply(x));
+        assertEquals(new Function("f", a, a), matches.get(3).substitution().apply(x));
+    }
+
+    @Test
+	// Tests: The non-linear pattern f(X,X) and f(X,b) against f(a,b), f(g(Y),g(Y)) and the subject variable f(Y,b)
+	// Result: Should check repeated variables and treat subject variables like constants
+    void testNonLinearAndSubjectVariables() {
+        MatchingAutomaton automaton = MatchingAutomaton.compile(List.of(new Function("f", x, x), new Function("f", x, b)));
+        assertEquals(List.of(1), automaton.match(new Function("f", a, b)).stream().map(MatchingAutomaton.Match::index).toList());
+        assertEquals(List.of(0), automaton.match(new Function("f", new Function("g", y), new Function("g", y)))
+                .stream().map(MatchingAutomaton.Match::index).toList());
+        assertEquals(List.of(1), automaton.match(new Function("f", y, b)).stream().map(MatchingAutomaton.Match::index).toList());
+        assertTrue(automaton.match(new Function("h", a)).isEmpty());
+    }
+
+    @Test
+	// Tests: 200 patterns p(ci, X, f(Y)) and p(X, ci, Y) against subjects p(cj, ck, f(a))
+	// Result: Should report exactly the patterns Matcher accepts, reusing the states built before
+    void testAgreesWithMatcher() {
+        List<Term> patterns = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            patterns.add(new Function("p", new Constant("c" + i), x, new Function("f", y)));
+            patterns.add(new Function("p", x, new Constant("c" + i), y));
+        }
+        MatchingAutomaton automaton = MatchingAutomaton.compile(patterns);
+        for (int round = 0; round < 2; round++) {
+            for (int j = 0; j < 100; j += 7) {
+                Term subject = new Function("p", new Constant("c" + j), new Constant("c" + (99 - j)), new Function("f", a));
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < patterns.size(); i++) {
+                    if (Matcher.matches(patterns.get(i), subject)) {
+                        expected.add(i);
+                    }
+                }
+                assertEquals(expected, automaton.match(subject).stream().map(MatchingAutomaton.Match::index).toList());
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import com.github.geje1017.logic.Solver;
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Variable x;         // X
+    private Variable y;         // Y
+    private Variable z;         // Z
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        x = new Variable("X");
+        y = new Variable("Y");
+        z = new Variable("Z");
+    }
+
+    @Test
+	// Tests: X = f(Y), then at a choice point Y = a, undo, then Y = b
+	// Result: Should resolve X to f(a), then back to f(Y), then f(b)
+    void testMarkAndUndo() {
+        Solver solver = new Solver();
+        assertTrue(solver.unify(x, new Function("f", y)));
+        int choice = solver.mark();
+        assertTrue(solver.unify(y, a));
+        assertEquals(new Function("f", a), solver.resolve(x));
+        solver.undo(choice);
+        assertEquals(new Function("f", y), solver.resolve(x));
+        assertEquals(1, solver.size());
+        assertTrue(solver.unify(y, b));
+        assertEquals(new Function("f", b), solver.resolve(x));
+        assertThrows(IllegalArgumentException.class, () -> solver.undo(solver.mark() + 1));
+    }
+
+    @Test
+	// Tests: f(X,Y,b) = f(a,Z,c) and X = Y, Y = f(X) with earlier bindings
+	// Result: Should fail on clash and occurs-check through bound variables, keeping prior bindings
+    void testFailureKeepsBindings() {
+        Solver solver = new Solver();
+        assertFalse(solver.unify(new Function("f", x, y, b), new Function("f", a, z, new Constant("c"))));
+        assertEquals(0, solver.size());
+        assertTrue(solver.unify(x, y));
+        assertFalse(solver.unify(y, new Function("f", x)));
+        assertEquals(1, solver.size());
+        assertEquals(y, solver.resolve(x));
+    }
+
+    @Test
+	// Tests: Exporting a snapshot of X = g(Y), Y = a and undoing afterwards
+	// Result: The snapshot should be idempotent and unaffected by the undo
+    void testSnapshot() {
+        Solver solver = new Solver();
+        assertTrue(solver.unify(x, new Function("g", y)));
+        assertTrue(solver.unify(y, a));
+        Substitution sigma = solver.snapshot();
+        solver.undo(0);
+        assertEquals(new Function("g", a), sigma.lookup(x));
+        assertEquals(a, sigma.lookup(y));
+        assertEquals(x, solver.resolve(x));
+    }
+
+    @Test
+	// Tests: X = f(f(...f(Y)...)) nested 100000 deep, then Y = g(Z) and Z = a
+	// Result: resolve and snapshot should rebuild the deep binding without overflowing the stack
+    void testDeepBindings() {
+        Term deep = y;
+        Term expected = new Function("g", a);
+        for (int i = 0; i < 100_000; i++) {
+            deep = new Function("f", deep);
+            expected = new Function("f", expected);
+        }
+        Solver solver = new Solver();
+        assertTrue(solver.unify(x, deep));
+        assertEquals(deep, solver.resolve(x));
+        assertTrue(solver.unify(y, new Function("g", z)));
+        assertTrue(solver.unify(z, a));
+        assertEquals(expected, solver.resolve(x));
+        assertEquals(expected, solver.snapshot().lookup(x));
+    }
+}
@@ -0,0 +1,92 @@
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubstitutionTest {
+
+    private Constant a;         // a
+    private Variable x;         // X
+    private Variable y;         // Y
+    private Variable z;         // Z
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        x = new Variable("X");
+        y = new Variable("Y");
+        z = new Variable("Z");
+    }
+
+    @Test
+	// Tests: {} extended by X->f(Y), then Y->g(Z), then Z->a
+	// Result: X should resolve to f(g(a)) through the later bindings
+    void testTriangularResolution() {
+        Substitution sigma = new Substitution()
+                .extend(x, new Function("f", y))
+                .extend(y, new Function("g", z))
+                .extend(z, a);
+        assertEquals(new Function("f", new Function("g", a)), sigma.lookup(x));
+        assertEquals(new Function("g", a), sigma.lookup(y));
+        assertEquals(new Function("h", new Function("f", new Function("g", a))),
+                sigma.apply(new Function("h", x)));
+        assertEquals(3, sigma.size());
+    }
+
+    @Test
+	// Tests: extending one substitution along two different branches
+	// Result: Each version should keep its own bindings
+    void testExtendIsPersistent() {
+        Substitution base = new Substitution().extend(x, y);
+        Substitution left = base.extend(y, a);
+        Substitution right = base.extend(y, z);
+        assertEquals(y, base.lookup(x));
+        assertEquals(a, left.lookup(x));
+        assertEquals(z, right.lookup(x));
+        // Resolving the newer branch must not leak into the older one
+        assertEquals(a, left.lookup(x));
+        assertEquals(y, base.lookup(x));
+    }
+
+    @Test
+	// Tests: normalize of X->Y, Y->a
+	// Result: Should contain the resolved bindings X->a and Y->a
+    void testNormalize() {
+        Substitution sigma = new Substitution().extend(x, y).extend(y, a);
+        Substitution normal = sigma.normalize();
+        assertEquals(Set.of(Map.entry(x, a), Map.entry(y, a)), normal.entrySet());
+        assertEquals(sigma.entrySet(), normal.entrySet());
+    }
+
+    @Test
+	// Tests: {Y->X} composed with {X->a}
+	// Result: Should yield X->a and keep Y->X as in σ ∘ τ
+    void testCompose() {
+        Substitution sigma = new Substitution().extend(y, x);
+        Substitution tau = new Substitution().extend(x, a);
+        Substitution composed = sigma.compose(tau);
+        assertEquals(a, composed.lookup(x));
+        assertEquals(x, composed.lookup(y));
+    }
+
+    @Test
+	// Tests: {X->a} applied to g(Y,Z), f(a), and h(g(Y,Z), X)
+	// Result: Unaffected terms should come back as the same objects, and the changed term should share g(Y,Z)
+    void testApplyPreservesUnaffectedStructure() {
+        Substitution sigma = new Substitution().extend(x, a);
+        Term disjoint = new Function("g", y, z);
+        Term ground = new Function("f", a);
+        Function mixed = new Function("h", disjoint, x);
+        assertSame(disjoint, sigma.apply(disjoint));
+        assertSame(ground, sigma.apply(ground));
+        Function applied = (Function) sigma.apply(mixed);
+        assertSame(disjoint, applied.getArgumentOnPosition(0));
+        assertEquals(a, applied.getArgumentOnPosition(1));
+        assertTrue(sigma.bindsAny(Set.of(x, y)));
+        assertFalse(sigma.bindsAny(Set.of(y, z)));
+    }
+}
@@ -0,0 +1,88 @@
+import com.github.geje1017.io.TermDecoder;
+import com.github.geje1017.io.TermEncoder;
+import com.github.geje1017.io.TermReader;
+import com.github.geje1017.logic.AntiUnifier;
+import com.github.geje1017.logic.TermStore;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolsTest {
+
+    @Test
+	// Tests: Looking up the same names twice, and variables and constants in different case
+	// Result: Should return the same ids, normalized to the case of the term kind
+    void testIdsAreStableAndNormalized() {
+        int f = Symbols.id("symbols_test_f");
+        assertEquals(f, Symbols.id("symbols_test_f"));
+        assertNotEquals(f, Symbols.id("symbols_test_g"));
+        assertEquals("symbols_test_f", Symbols.name(f));
+        assertEquals(Symbols.variable("x"), Symbols.variable("X"));
+        assertEquals(Symbols.constant("A"), Symbols.constant("a"));
+        assertEquals(new Variable("x"), new Variable("X"));
+        assertEquals("X", new Variable("x").toString());
+        assertEquals(Symbols.id("f"), new Function("f", new Constant("a")).getSymbol());
+    }
+
+    @Test
+	// Tests: Creating fresh variables, reading their printed names back, and names outside the reserved form
+	// Result: Fresh variables should differ from each other, their names should denote them, and later fresh variables should not reuse a name read before
+    void testFreshVariables() {
+        Variable first = Variable.fresh();
+        Variable second = Variable.fresh();
+        assertNotEquals(first, second);
+        assertTrue(first.getId() < 0);
+        assertNull(Symbols.name(first.getId()));
+        assertTrue(first.toString().startsWith("_G"));
+        assertEquals(first, new Variable(first.toString()));
+        assertEquals(first, new Variable(first.toString().toLowerCase()));
+
+        Variable ahead = new Variable("_G" + (-second.getId() + 1000));
+        assertTrue(Variable.fresh().getId() < ahead.getId());
+        assertTrue(new Variable("_G0").getId() >= 0);
+        assertTrue(new Variable("_G01").getId() >= 0);
+        assertTrue(new Variable("_G99999999999").getId() >= 0);
+    }
+
+    @Test
+	// Tests: The generalization f(_G1,_G2) of f(a,b) and f(b,a) written as text, encoded, stored and unified with named copies
+	// Result: Every round trip should return the same fresh variables, and unification should bind each variable once
+    void testFreshVariablesRoundTrip() throws IOException {
+        Constant a = new Constant("a"), b = new Constant("b");
+        Term lgg = AntiUnifier.generalize(new Function("f", a, b), new Function("f", b, a));
+        assertEquals(lgg, TermReader.parseTerm(lgg.toString()));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        try (TermEncoder encoder = new TermEncoder(buffer)) {
+            encoder.writeTerm(lgg);
+        }
+        assertEquals(lgg, new TermDecoder(buffer.flip()).readTerm());
+
+        TermStore store = new TermStore();
+        assertEquals(lgg, store.toTerm(store.add(lgg)));
+
+        Term copy = TermReader.parseTerm(lgg.toString());
+        UnifyResult result = Unifier.unify(List.of(new Equation(lgg, new Function("f", a, b)),
+                new Equation(copy, new Function("f", a, b))));
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getSubstitution().entrySet().size());
+    }
+
+    @Test
+	// Tests: Functions with equal names but different arities, and with different names
+	// Result: Compatibility and equality should follow symbol id and arity
+    void testFunctionSymbols() {
+        Constant a = new Constant("a");
+        assertTrue(new Function("f", a).isCompatibleWith(new Function("f", new Variable("X"))));
+        assertFalse(new Function("f", a).isCompatibleWith(new Function("f", a, a)));
+        assertFalse(new Function("f", a).isCompatibleWith(new Function("g", a)));
+        assertEquals(new Function("f", a).hashCode(), new Function("f", new Constant("A")).hashCode());
+    }
+}
@@ -0,0 +1,146 @@
+import com.github.geje1017.io.TermDecoder;
+import com.github.geje1017.io.TermEncoder;
+import com.github.geje1017.logic.Matcher;
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermEncoderTest {
+
+    @Test
+	// Tests: Encoding a term, equations, a substitution and a UnifyResult into one buffer
+	// Result: Should decode every record to an equal value in the same order
+    void testRoundTrip() throws IOException {
+        Variable x = new Variable("X");
+        Term term = new Function("f", x, new Constant("a"), new Function("h"));
+        List<Equation> equations = List.of(new Equation(term, new Function("f", new Constant("b"), new Variable("Y"), new Function("h"))));
+        UnifyResult result = Unifier.unify(List.of(new Equation(new Function("f", x, new Variable("Y")),
+                new Function("f", new Constant("a"), x))));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        try (TermEncoder encoder = new TermEncoder(buffer)) {
+            encoder.writeTerm(term);
+            encoder.writeEquations(equations);
+            encoder.writeSubstitution(result.getSubstitution());
+            encoder.writeResult(result);
+        }
+        TermDecoder decoder = new TermDecoder(buffer.flip());
+        assertEquals(term, decoder.readTerm());
+        assertEquals(equations, decoder.readEquations());
+        Substitution sigma = decoder.readSubstitution();
+        assertEquals(result.getSubstitution().toString(), sigma.toString());
+        UnifyResult decoded = decoder.readResult();
+        assertTrue(decoded.isSuccess());
+        assertEquals(result.getTrace(), decoded.getTrace());
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+	// Tests: The non-idempotent matcher {Y↦X, X↦a} of f(X,g(Y)) against f(a,g(X))
+	// Result: Should decode to the same bindings, still mapping the pattern onto the subject
+    void testNonIdempotentSubstitution() throws IOException {
+        Variable x = new Variable("X"), y = new Variable("Y");
+        Constant a = new Constant("a");
+        Term pattern = new Function("f", x, new Function("g", y));
+        Term subject = new Function("f", a, new Function("g", x));
+        Substitution sigma = Matcher.match(pattern, subject).orElseThrow();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        try (TermEncoder encoder = new TermEncoder(buffer)) {
+            encoder.writeSubstitution(sigma);
+        }
+        Substitution decoded = new TermDecoder(buffer.flip()).readSubstitution();
+        assertEquals(x, decoded.lookup(y));
+        assertEquals(a, decoded.lookup(x));
+        assertEquals(subject, decoded.apply(pattern));
+    }
+
+    @Test
+	// Tests: A term built as t_{i+1} = g(t_i, t_i) thirty times
+	// Result: Should encode in a few hundred bytes and decode with the arguments still shared
+    void testSharingPreserved() throws IOException {
+        Term term = new Variable("X");
+        for (int i = 0; i < 30; i++) {
+            term = new Function("g", term, term);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        try (TermEncoder encoder = new TermEncoder(buffer)) {
+            encoder.writeTerm(term);
+        }
+        assertTrue(buffer.position() < 200);
+        Function decoded = (Function) new TermDecoder(buffer.flip()).readTerm();
+        assertSame(decoded.getArgumentOnPosition(0), decoded.getArgumentOnPosition(1));
+        assertEquals(term.hashCode(), decoded.hashCode());
+    }
+
+    @Test
+	// Tests: Streaming 20000 equation sets to a file with a table reset halfway
+	// Result: Should read them all back from the mapped file and from a channel
+    void testStreamFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("equations.bin");
+        int count = 20_000;
+        try (TermEncoder encoder = TermEncoder.create(file)) {
+            for (int i = 0; i < count; i++) {
+                if (i == count / 2) {
+                    encoder.reset();
+                }
+                encoder.writeEquations(List.of(new Equation(new Variable("X" + i % 100),
+                        new Function("f", new Constant("c" + i)))));
+            }
+        }
+        try (TermDecoder decoder = TermDecoder.open(file)) {
+            assertEquals(count, decoder.records().count());
+        }
+        try (TermDecoder decoder = new TermDecoder(FileChannel.open(file))) {
+            for (int i = 0; i < count; i++) {
+                List<Equation> equations = decoder.readEquations();
+                assertEquals(new Constant("c" + i), ((Function) equations.get(0).right()).getArgumentOnPosition(0));
+            }
+            assertFalse(decoder.hasNext());
+        }
+    }
+
+    @Test
+	// Tests: Decoding bytes without the header, and reading the wrong record kind
+	// Result: Should throw StreamCorruptedException
+    void testCorruptInput() throws IOException {
+        assertThrows(StreamCorruptedException.class, () -> new TermDecoder(ByteBuffer.wrap(new byte[]{1, 2, 3, 4})));
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        try (TermEncoder encoder = new TermEncoder(buffer)) {
+            encoder.writeTerm(new Constant("a"));
+        }
+        assertThrows(StreamCorruptedException.class, () -> new TermDecoder(buffer.flip()).readEquation());
+    }
+
+    @Test
+	// Tests: A varint overflowing an int, and huge counts, arities and lengths followed by the end of input
+	// Result: Should throw StreamCorruptedException and EOFException instead of overflowing or running out of memory
+    void testCorruptCounts() {
+        byte[] header = {'T', 'R', 'M', 1};
+        byte[] overflow = {3, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        assertThrows(StreamCorruptedException.class, () -> decoder(header, overflow).readEquations());
+        byte[] equations = {3, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        assertThrows(EOFException.class, () -> decoder(header, equations).readEquations());
+        byte[] arity = {1, 2, 0, 1, 'f', (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 0, 1, 'a'};
+        assertThrows(EOFException.class, () -> decoder(header, arity).readTerm());
+        byte[] length = {1, 1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'a'};
+        assertThrows(EOFException.class, () -> decoder(header, length).readTerm());
+    }
+
+    private static TermDecoder decoder(byte[] header, byte[] records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(header.length + records.length).put(header).put(records);
+        return new TermDecoder(buffer.flip());
+    }
+}
@@ -0,0 +1,106 @@
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermFactoryTest {
+
+    @Test
+	// Tests: f(g(X),a) built twice by the factory
+	// Result: Both builds should return the same object
+    void testStructurallyEqualTermsAreIdentical() {
+        Function first = TermFactory.function("f",
+                TermFactory.function("g", TermFactory.variable("X")), TermFactory.constant("a"));
+        Function second = TermFactory.function("f",
+                TermFactory.function("g", TermFactory.variable("x")), TermFactory.constant("A"));
+        assertSame(first, second, "Equal terms should be interned to one instance");
+        assertTrue(first.isInterned());
+    }
+
+    @Test
+	// Tests: interning a freely constructed f(g(X),a)
+	// Result: Should return the canonical instance, still equal to the original
+    void testInternFreelyConstructedTerm() {
+        Function free = new Function("f", new Function("g", new Variable("X")), new Constant("a"));
+        Term interned = TermFactory.intern(free);
+        assertEquals(free, interned);
+        assertSame(interned, TermFactory.intern(new Function("f",
+                new Function("g", new Variable("X")), new Constant("a"))));
+    }
+
+    @Test
+	// Tests: f(a) and f(b) from the factory
+	// Result: Distinct interned terms should be unequal
+    void testDistinctInternedTermsAreUnequal() {
+        Function fa = TermFactory.function("f", TermFactory.constant("a"));
+        Function fb = TermFactory.function("f", TermFactory.constant("b"));
+        assertNotEquals(fa, fb);
+        assertFalse(Unifier.unify(List.of(new Equation(fa, fb))).isSuccess());
+    }
+
+    @Test
+	// Tests: many threads building the same terms concurrently
+	// Result: Every thread should observe the same canonical instances
+    void testConcurrentInterning() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Term>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    List<Term> built = new ArrayList<>();
+                    for (int i = 0; i < 1000; i++) {
+                        built.add(TermFactory.function("h",
+                                TermFactory.variable("V" + i), TermFactory.constant("c" + (i % 10))));
+                    }
+                    return built;
+                }));
+            }
+            List<Term> reference = futures.get(0).get();
+            for (Future<List<Term>> future : futures) {
+                List<Term> built = future.get();
+                for (int i = 0; i < reference.size(); i++) {
+                    assertSame(reference.get(i), built.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+	// Tests: f(X, g(Y)) = f(a, g(b)) on interned terms
+	// Result: Should bind X->a and Y->b
+    void testUnifyInternedTerms() {
+        Variable x = TermFactory.variable("X");
+        Variable y = TermFactory.variable("Y");
+        Constant a = TermFactory.constant("a");
+        Constant b = TermFactory.constant("b");
+        UnifyResult result = Unifier.unify(List.of(new Equation(
+                TermFactory.function("f", x, TermFactory.function("g", y)),
+                TermFactory.function("f", a, TermFactory.function("g", b)))));
+        assertTrue(result.isSuccess());
+        assertEquals(a, result.getSubstitution().lookup(x));
+        assertEquals(b, result.getSubstitution().lookup(y));
+    }
+
+    @Test
+	// Tests: interning a freely constructed f(f(...f(X)...)) nested 100000 deep, and building it again
+	// Result: Should not overflow the stack and return the same canonical instance both times
+    void testInternDeepTerm() {
+        Term term = new Variable("X");
+        for (int i = 0; i < 100_000; i++) {
+            term = new Function("f", term);
+        }
+        Term interned = TermFactory.intern(term);
+        assertEquals(term, interned);
+        assertTrue(((Function) interned).isInterned());
+        Function rebuilt = TermFactory.function("f", ((Function) term).getArgumentOnPosition(0));
+        assertSame(interned, rebuilt);
+    }
+}
@@ -0,0 +1,122 @@
+import com.github.geje1017.logic.TermIndex;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermIndexTest {
+
+    private Constant a;         // a
+    private Constant b;         // b
+    private Variable x;         // X
+    private Variable y;         // Y
+    private Variable z;         // Z
+    private TermIndex index;
+    private List<Term> stored;
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        b = new Constant("b");
+        x = new Variable("X");
+        y = new Variable("Y");
+        z = new Variable("Z");
+        stored = List.of(
+                new Function("f", a, b),                        // f(a,b)
+                new Function("f", z, b),                        // f(Z,b)
+                new Function("f", new Function("g", a), a),     // f(g(a),a)
+                new Function("f", new Function("g", z), z),     // f(g(Z),Z)
+                new Function("h", a),                           // h(a)
+                z,                                              // Z
+                a                                               // a
+        );
+        index = new TermIndex();
+        stored.forEach(index::insert);
+    }
+
+    private static Set<Term> terms(List<TermIndex.Match> matches) {
+        return matches.stream().map(TermIndex.Match::term).collect(Collectors.toSet());
+    }
+
+    @Test
+	// Tests: query f(X,Y) against the stored terms
+	// Result: Should return exactly the terms a brute-force unification accepts
+    void testUnifiableMatchesBruteForce() {
+        Term query = new Function("f", x, y);
+        Set<Term> expected = stored.stream()
+                .filter(t -> Unifier.unify(List.of(new Equation(query, t))).isSuccess())
+                .collect(Collectors.toSet());
+        assertEquals(expected, terms(index.unifiable(query)));
+        assertEquals(Set.of(stored.get(0), stored.get(1), stored.get(2), stored.get(3), stored.get(5)), expected);
+    }
+
+    @Test
+	// Tests: query f(g(X),X)
+	// Result: Instances are f(g(a),a) and f(g(Z),Z); generalizations are f(g(Z),Z) and Z
+    void testInstancesAndGeneralizations() {
+        Term query = new Function("f", new Function("g", x), x);
+        assertEquals(Set.of(stored.get(2), stored.get(3)), terms(index.instances(query)));
+        assertEquals(Set.of(stored.get(3), stored.get(5)), terms(index.generalizations(query)));
+        TermIndex.Match instance = index.instances(query).stream()
+                .filter(m -> m.term().equals(stored.get(2))).findFirst().orElseThrow();
+        assertEquals(a, instance.substitution().lookup(x));
+    }
+
+    @Test
+	// Tests: removing f(Z,b) and a term that was never stored
+	// Result: Only the stored term should be removed
+    void testRemove() {
+        assertTrue(index.remove(new Function("f", z, b)));
+        assertFalse(index.remove(new Function("f", b, b)));
+        assertEquals(stored.size() - 1, index.size());
+        assertFalse(terms(index.unifiable(new Function("f", x, b))).contains(stored.get(1)));
+    }
+
+    @Test
+	// Tests: the constant a next to the nullary function a(), and a shared term g(t,t) nested 6 times
+	// Result: Constants and functions of the same name should stay apart, and the large term should round-trip
+    void testSymbolKeysAndLargeTerms() {
+        TermIndex fresh = new TermIndex();
+        Function nullary = new Function("a");
+        fresh.insert(a);
+        fresh.insert(nullary);
+        assertEquals(Set.of(a), terms(fresh.instances(a)));
+        assertEquals(Set.of(nullary), terms(fresh.instances(nullary)));
+
+        Term shared = b;
+        for (int i = 0; i < 6; i++) {
+            shared = new Function("g", shared, shared);
+        }
+        fresh.insert(shared);
+        assertEquals(Set.of(shared), terms(fresh.generalizations(shared)));
+        assertTrue(fresh.remove(shared));
+        assertEquals(2, fresh.size());
+    }
+
+    @Test
+	// Tests: storing f(f(...f(a)...)) and f(f(...f(Z)...)) nested 20000 deep and querying with f(f(...f(X)...))
+	// Result: Every kind of retrieval and removal should work without overflowing the stack
+    void testDeepTerms() {
+        Term ground = a;
+        Term open = z;
+        Term query = x;
+        for (int i = 0; i < 20_000; i++) {
+            ground = new Function("f", ground);
+            open = new Function("f", open);
+            query = new Function("f", query);
+        }
+        TermIndex deep = new TermIndex();
+        deep.insert(ground);
+        deep.insert(open);
+        assertEquals(Set.of(ground, open), terms(deep.unifiable(query)));
+        assertEquals(Set.of(ground, open), terms(deep.instances(query)));
+        assertEquals(Set.of(ground, open), terms(deep.generalizations(ground)));
+        assertTrue(deep.remove(ground));
+        assertEquals(Set.of(open), terms(deep.unifiable(query)));
+    }
+}
@@ -0,0 +1,68 @@
+import com.github.geje1017.io.TermReader;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermReaderTest {
+
+    @Test
+	// Tests: Parsing the toString() form of f(g(X),a,h(),Y)
+	// Result: Should reproduce an equal term with variables, constants and a nullary function
+    void testParseToStringNotation() {
+        Term term = new Function("f", new Function("g", new Variable("X")), new Constant("a"),
+                new Function("h"), new Variable("Y"));
+        assertEquals(term, TermReader.parseTerm(term.toString()));
+        assertEquals(term, TermReader.parseTerm(" f ( g(X) , a, h( ), Y ) "));
+    }
+
+    @Test
+	// Tests: Three lines of equation sets with a comment and a blank line
+	// Result: Should stream two sets in order, splitting equations at top-level commas
+    void testStreamEquationSets() throws IOException {
+        String text = "# problems\nf(X,b) = f(a,Y), Z ≐ g(X)\n\n  X = a\n";
+        try (TermReader reader = new TermReader(new StringReader(text))) {
+            List<List<Equation>> sets = reader.equationSets().collect(Collectors.toList());
+            assertEquals(2, sets.size());
+            assertEquals(2, sets.get(0).size());
+            assertEquals(new Equation(new Variable("Z"), new Function("g", new Variable("X"))), sets.get(0).get(1));
+            assertEquals(List.of(new Equation(new Variable("X"), new Constant("a"))), sets.get(1));
+        }
+    }
+
+    @Test
+	// Tests: A 100000-deep term, and the malformed inputs f(a and f(a) = 
+	// Result: Should parse without stack overflow and report syntax errors with a position
+    void testDeepTermsAndSyntaxErrors() {
+        int depth = 100_000;
+        String text = "f(".repeat(depth) + "a" + ")".repeat(depth);
+        assertEquals(depth + 1, TermReader.parseTerm(text).depth());
+        TermReader.SyntaxException e = assertThrows(TermReader.SyntaxException.class,
+                () -> TermReader.parseTerm("f(a"));
+        assertTrue(e.getMessage().contains("column 4"));
+        assertThrows(TermReader.SyntaxException.class, () -> TermReader.parseEquations("f(a) = "));
+    }
+
+    @Test
+	// Tests: Skipping the rest of the line after the malformed sets f(a = b and X = f(a
+	// Result: Should report each error once and read the valid sets on the following lines
+    void testSkipLineAfterSyntaxError() throws IOException {
+        String text = "f(a = b\nX = a\nX = f(a\nY = b\n";
+        try (TermReader reader = new TermReader(new StringReader(text))) {
+            TermReader.SyntaxException e = assertThrows(TermReader.SyntaxException.class, reader::nextEquations);
+            assertTrue(e.getMessage().contains("line 1"));
+            reader.skipLine();
+            assertEquals(List.of(new Equation(new Variable("X"), new Constant("a"))), reader.nextEquations());
+            e = assertThrows(TermReader.SyntaxException.class, reader::nextEquations);
+            assertTrue(e.getMessage().contains("line 3"));
+            reader.skipLine();
+            assertEquals(List.of(new Equation(new Variable("Y"), new Constant("b"))), reader.nextEquations());
+            assertNull(reader.nextEquations());
+        }
+    }
+}
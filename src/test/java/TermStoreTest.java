@@ -0,0 +1,131 @@
+import com.github.geje1017.logic.Substitution;
+import com.github.geje1017.logic.TermStore;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermStoreTest {
+
+    private Constant a;         // a
+    private Variable x;         // X
+    private Variable y;         // Y
+
+    @BeforeEach
+    void setUp() {
+        a = new Constant("a");
+        x = new Variable("X");
+        y = new Variable("Y");
+    }
+
+    @Test
+	// Tests: Storing f(X,g(a,Y)) and reading it back
+	// Result: Should reproduce an equal term and share variables by name
+    void testRoundTrip() {
+        TermStore store = new TermStore();
+        Term term = new Function("f", x, new Function("g", a, y));
+        int id = store.add(term);
+        assertEquals(term, store.toTerm(id));
+        assertEquals(store.variable("X"), store.add(x));
+        assertThrows(IllegalArgumentException.class, () -> store.toTerm(store.cells()));
+    }
+
+    @Test
+	// Tests: f(X,g(Y)) = f(g(a),X) on ids
+	// Result: Should bind X->g(a), Y->a and agree with the Unifier's MGU
+    void testUnifyOnIds() {
+        TermStore store = new TermStore();
+        int left = store.function("f", store.variable("X"), store.function("g", store.variable("Y")));
+        int right = store.function("f", store.function("g", store.constant("a")), store.variable("X"));
+        assertTrue(store.unify(left, right));
+        Substitution sigma = store.substitution();
+        assertEquals(new Function("g", a), sigma.lookup(x));
+        assertEquals(a, sigma.lookup(y));
+        assertEquals(store.resolve(left), store.resolve(right));
+    }
+
+    @Test
+	// Tests: f(X,b) = f(a,c) followed by X = f(X)
+	// Result: Both should fail and leave no binding behind
+    void testFailureUndoesBindings() {
+        TermStore store = new TermStore();
+        int variable = store.variable("X");
+        assertFalse(store.unify(store.function("f", variable, store.constant("b")),
+                store.function("f", store.constant("a"), store.constant("c"))));
+        assertFalse(store.unify(variable, store.function("f", variable)));
+        assertEquals(0, store.substitution().size());
+        assertTrue(store.unify(variable, store.constant("a")));
+        store.reset();
+        assertEquals(0, store.substitution().size());
+    }
+
+    @Test
+	// Tests: f(X1..X20) = f(g(X0,X0)..g(X19,X19)) through the Equation adapter
+	// Result: Should succeed quickly and bind X20 to a term of exponential tree size
+    void testExponentialFamily() {
+        int n = 20;
+        Term[] left = new Term[n];
+        Term[] right = new Term[n];
+        for (int i = 1; i <= n; i++) {
+            Variable previous = new Variable("X" + (i - 1));
+            left[i - 1] = new Variable("X" + i);
+            right[i - 1] = new Function("g", previous, previous);
+        }
+        UnifyResult result = TermStore.unify(List.of(new Equation(new Function("f", left), new Function("f", right))));
+        assertTrue(result.isSuccess());
+        assertEquals(n + 1, result.getSubstitution().lookup(new Variable("X" + n)).depth());
+        assertTrue(result.getTrace().isEmpty());
+    }
+
+    @Test
+	// Tests: Storing f(G1,G2,X) with two fresh variables G1, G2 and unifying G1 = a
+	// Result: Should read back the same fresh variables and bind G1 in the substitution
+    void testFreshVariables() {
+        Variable g1 = Variable.fresh();
+        Variable g2 = Variable.fresh();
+        Term term = new Function("f", g1, g2, x);
+        TermStore store = new TermStore();
+        int id = store.add(term);
+        assertEquals(term, store.toTerm(id));
+        assertTrue(store.unify(store.add(g1), store.add(a)));
+        Substitution sigma = store.substitution();
+        assertEquals(a, sigma.lookup(g1));
+        assertEquals(g2, sigma.lookup(g2));
+        assertEquals(new Function("f", a, g2, x), store.resolve(id));
+    }
+
+    @Test
+	// Tests: f(f(...f(X)...)) = f(f(...f(g(a))...)) nested 100000 deep, stored and unified on ids
+	// Result: Should store, unify and convert back without overflowing the stack
+    void testDeepTerms() {
+        Term left = x;
+        Term right = new Function("g", a);
+        for (int i = 0; i < 100_000; i++) {
+            left = new Function("f", left);
+            right = new Function("f", right);
+        }
+        TermStore store = new TermStore();
+        int l = store.add(left);
+        int r = store.add(right);
+        assertEquals(left, store.toTerm(l));
+        assertTrue(store.unify(l, r));
+        assertEquals(right, store.resolve(l));
+        assertEquals(new Function("g", a), store.substitution().lookup(x));
+    }
+
+    @Test
+	// Tests: The constants A and a, stored by symbol and as part of f(A) and f(a)
+	// Result: Both spellings should be the same node and unify
+    void testConstantsAreCaseNormalized() {
+        TermStore store = new TermStore();
+        assertEquals(store.constant("A"), store.constant("a"));
+        int left = store.function("f", store.constant("A"));
+        int right = store.add(new Function("f", new Constant("a")));
+        assertTrue(store.unify(left, right));
+        assertEquals(store.toTerm(left), store.toTerm(right));
+    }
+}
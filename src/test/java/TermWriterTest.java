@@ -0,0 +1,37 @@
+import com.github.geje1017.io.TermReader;
+import com.github.geje1017.io.TermWriter;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermWriterTest {
+
+    @Test
+	// Tests: Writing terms and an equation to an Appendable
+	// Result: Should produce exactly the toString() text, which parses back to the same term
+    void testWriteMatchesToString() throws IOException {
+        Term term = new Function("f", new Function("g", new Variable("X")), new Constant("a"), new Function("h"));
+        assertEquals(term.toString(), TermWriter.toString(term));
+        Equation eq = new Equation(new Variable("Y"), term);
+        StringBuilder sb = new StringBuilder();
+        TermWriter.write(eq, sb);
+        assertEquals(eq.toString(), sb.toString());
+        assertEquals(term, TermReader.parseTerm(TermWriter.toString(term)));
+    }
+
+    @Test
+	// Tests: Writing the UnifyResult of f(X,g(Y)) = f(a,g(b)) with full trace
+	// Result: Should produce exactly the text of UnifyResult.toString()
+    void testWriteUnifyResult() throws IOException {
+        UnifyResult result = Unifier.unify(TermReader.parseEquations("f(X,g(Y)) = f(a,g(b))"));
+        StringBuilder sb = new StringBuilder();
+        TermWriter.write(result, sb);
+        assertEquals(result.toString(), sb.toString());
+    }
+}
@@ -0,0 +1,94 @@
+import com.github.geje1017.logic.TraceLevel;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.service.UnificationServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnificationServerTest {
+
+    @Test
+	// Tests: Serving a stream with a success, a clash, a comment, a syntax error and an occurs-check failure
+	// Result: Should answer every request line in order and record the latencies of the three parsed requests
+    void testServeStream() throws Exception {
+        String input = "f(X,b) = f(a,Y)\nf(a) = g(a)\n# comment\nf(X\nX = f(X)\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (UnificationServer server = new UnificationServer()) {
+            server.serve(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+            assertEquals(3, server.latencies().count());
+        }
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].equals("ok {X↦a, Y↦b}") || lines[0].equals("ok {Y↦b, X↦a}"), lines[0]);
+        assertEquals("fail", lines[1]);
+        assertTrue(lines[2].startsWith("error "), lines[2]);
+        assertEquals("fail", lines[3]);
+    }
+
+    @Test
+	// Tests: Eight clients on localhost sockets, each pipelining 500 requests X = ci before reading
+	// Result: Every client should receive its own answers in order, batched through a small queue
+    void testConcurrentClients() throws Exception {
+        Unifier.Options options = Unifier.Options.DEFAULT.withTraceLevel(TraceLevel.OFF);
+        try (UnificationServer server = new UnificationServer(options, 16, 32);
+             ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    server.listen(socket);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            List<Future<Boolean>> answers = new ArrayList<>();
+            for (int c = 0; c < 8; c++) {
+                int client = c;
+                answers.add(clients.submit(() -> exchange(socket.getLocalPort(), client, 500)));
+            }
+            for (Future<Boolean> answer : answers) {
+                assertTrue(answer.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(4000, server.latencies().count());
+            assertTrue(server.latencies().p99() <= server.latencies().max());
+        }
+    }
+
+    /**
+     * Sends all requests of one client, then checks the responses.
+     * @param port the server port
+     * @param client the client number, used in the constants
+     * @param requests the number of requests
+     * @return true if every response matched its request
+     */
+    private static boolean exchange(int port, int client, int requests) throws IOException {
+        try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    Writer w = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8);
+                    for (int i = 0; i < requests; i++) {
+                        w.write("X = c" + client + "_" + i + "\n");
+                    }
+                    w.flush();
+                    s.shutdownOutput();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            for (int i = 0; i < requests; i++) {
+                if (!("ok {X↦c" + client + "_" + i + "}").equals(r.readLine())) {
+                    return false;
+                }
+            }
+            return r.readLine() == null;
+        }
+    }
+}
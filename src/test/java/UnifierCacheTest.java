@@ -0,0 +1,83 @@
+import com.github.geje1017.logic.UnifierCache;
+import com.github.geje1017.logic.UnifyResult;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnifierCacheTest {
+
+    @Test
+	// Tests: f(X,g(Y)) = f(a,Z), then the renamed variant f(U,g(V)) = f(a,W)
+	// Result: The second call should hit and return the MGU over U, V, W
+    void testHitOnRenamedVariant() {
+        UnifierCache cache = new UnifierCache(1_000);
+        Variable x = new Variable("X"), y = new Variable("Y"), z = new Variable("Z");
+        Variable u = new Variable("U"), v = new Variable("V"), w = new Variable("W");
+        Constant a = new Constant("a");
+
+        UnifyResult first = cache.unify(List.of(new Equation(new Function("f", x, new Function("g", y)), new Function("f", a, z))));
+        UnifyResult second = cache.unify(List.of(new Equation(new Function("f", u, new Function("g", v)), new Function("f", a, w))));
+
+        assertTrue(second.isSuccess());
+        assertEquals(a, first.getSubstitution().apply(x));
+        assertEquals(new Function("g", y), first.getSubstitution().apply(z));
+        assertEquals(a, second.getSubstitution().apply(u));
+        assertEquals(new Function("g", v), second.getSubstitution().apply(w));
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(0.5, cache.stats().hitRate());
+    }
+
+    @Test
+	// Tests: X = f(X) twice with different variable names, and Y = f(Z) which is no variant of it
+	// Result: The failure should be cached, the different problem should miss
+    void testFailureCachedAndNonVariantMisses() {
+        UnifierCache cache = new UnifierCache(1_000);
+        Variable x = new Variable("X"), y = new Variable("Y"), z = new Variable("Z");
+
+        assertFalse(cache.unify(List.of(new Equation(x, new Function("f", x)))).isSuccess());
+        assertFalse(cache.unify(List.of(new Equation(y, new Function("f", y)))).isSuccess());
+        assertTrue(cache.unify(List.of(new Equation(y, new Function("f", z)))).isSuccess());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().misses());
+        assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+	// Tests: Filling a small cache with distinct problems, touching the first one in between
+	// Result: The weight should stay within the bound and the recently used entry should survive
+    void testEvictsLeastRecentlyUsed() {
+        UnifierCache cache = new UnifierCache(20);
+        Variable x = new Variable("X");
+        List<Equation> first = List.of(new Equation(x, new Constant("c0")));
+        cache.unify(first);
+        for (int i = 1; i < 10; i++) {
+            cache.unify(List.of(new Equation(x, new Constant("c" + i))));
+            cache.unify(first);
+        }
+        UnifierCache.Stats stats = cache.stats();
+        assertTrue(stats.weight() <= 20);
+        assertTrue(stats.evictions() > 0);
+        assertEquals(9, stats.hits());
+    }
+
+    @Test
+	// Tests: Unifying f(Xi, a) = f(b, Yi) for many i from parallel threads
+	// Result: Every result should bind the caller's own variables, with a single entry cached
+    void testConcurrentAccess() {
+        UnifierCache cache = new UnifierCache(10_000);
+        IntStream.range(0, 2_000).parallel().forEach(i -> {
+            Variable x = new Variable("X" + i), y = new Variable("Y" + i);
+            UnifyResult result = cache.unify(List.of(new Equation(
+                    new Function("f", x, new Constant("a")), new Function("f", new Constant("b"), y))));
+            assertEquals(new Constant("b"), result.getSubstitution().apply(x));
+            assertEquals(new Constant("a"), result.getSubstitution().apply(y));
+        });
+        assertEquals(1, cache.stats().size());
+        assertEquals(2_000, cache.stats().hits() + cache.stats().misses());
+    }
+}
@@ -0,0 +1,94 @@
+import com.github.geje1017.logic.UnificationEvent;
+import com.github.geje1017.logic.Unifier;
+import com.github.geje1017.logic.UnifierMetrics;
+import com.github.geje1017.term.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnifierMetricsTest {
+
+    private final List<Equation> equations = List.of(new Equation(
+            new Function("f", new Variable("X"), new Constant("b")),
+            new Function("f", new Constant("a"), new Variable("Y"))));
+
+    @AfterEach
+    void tearDown() {
+        UnifierMetrics.disable();
+        UnifierMetrics.reset();
+    }
+
+    @Test
+	// Tests: f(X,b) = f(a,Y) with metrics enabled, then once more with metrics disabled
+	// Result: Should count 1 DECOMPOSE, 1 SWAP, 2 ELIMINATE and 2 bindings for the first call only
+    void testRuleCounters() {
+        UnifierMetrics.reset();
+        UnifierMetrics.enable();
+        assertTrue(Unifier.unify(equations).isSuccess());
+        UnifierMetrics.disable();
+        Unifier.unify(equations);
+
+        UnifierMetrics.Snapshot snapshot = UnifierMetrics.snapshot();
+        assertEquals(1, snapshot.calls());
+        assertEquals(0, snapshot.failures());
+        assertEquals(1, snapshot.decompositions());
+        assertEquals(1, snapshot.swaps());
+        assertEquals(2, snapshot.eliminations());
+        assertEquals(0, snapshot.deletes());
+        assertEquals(2, snapshot.occursCheckVisits());
+        assertEquals(2, snapshot.peakQueueSize());
+        assertEquals(2, snapshot.substitutionBindings());
+        assertTrue(snapshot.totalNanos() > 0);
+    }
+
+    @Test
+	// Tests: X = f(Y1,...,Y20), whose variable set is too large to be kept, eagerly and deferred
+	// Result: Should count 21 visits both times, the term with its arguments or the binding with its variables
+    void testOccursCheckVisits() {
+        Term[] arguments = new Term[20];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = new Variable("Y" + i);
+        }
+        List<Equation> wide = List.of(new Equation(new Variable("X"), new Function("f", arguments)));
+
+        UnifierMetrics.reset();
+        UnifierMetrics.enable();
+        assertTrue(Unifier.unify(wide).isSuccess());
+        assertEquals(21, UnifierMetrics.snapshot().occursCheckVisits());
+
+        UnifierMetrics.reset();
+        Unifier.Options deferred = Unifier.Options.DEFAULT.withOccursCheck(Unifier.OccursCheck.DEFERRED);
+        assertTrue(Unifier.unify(wide, deferred).isSuccess());
+        assertEquals(21, UnifierMetrics.snapshot().occursCheckVisits());
+    }
+
+    @Test
+	// Tests: Unifying under a flight recording with a zero threshold
+	// Result: Should record a UnificationEvent with the engine and rule counts
+    void testFlightRecorderEvent(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("unify.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(UnificationEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            Unifier.unify(equations, Unifier.Engine.UNION_FIND);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.github.geje1017.Unification"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("UNION_FIND", events.get(0).getString("engine"));
+        assertEquals(1, events.get(0).getLong("decompositions"));
+        assertTrue(events.get(0).getBoolean("success"));
+    }
+}
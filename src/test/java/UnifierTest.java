@@ -1,7 +1,11 @@
+import com.github.geje1017.logic.TraceEvent;
+import com.github.geje1017.logic.TraceLevel;
 import com.github.geje1017.logic.Unifier;
 import com.github.geje1017.logic.UnifyResult;
 import com.github.geje1017.term.*;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import org.junit.jupiter.api.BeforeEach;
 
@@ -52,47 +56,51 @@ class UnifierTest {
                 () -> String.format("Variable %s should map to %s but was %s", var, expected, actual));
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: a = a; 		
 	// Result: Should succeed with empty substitution
-    void testEquatingSameConstant() {
+    void testEquatingSameConstant(Unifier.Engine engine) {
         Equation eq = new Equation(a, a);
-        UnifyResult result = Unifier.unify(List.of(eq));
+        UnifyResult result = Unifier.unify(List.of(eq), engine);
         assertTrue(result.isSuccess(), "Unification of identical constants should succeed");
         assertTrue(result.getSubstitution().entrySet().isEmpty(),
                 "Substitution should remain empty when unifying identical constants");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: a = b; 		
 	// Result: Should fail
-    void testEquatingDifferentConstants() {
+    void testEquatingDifferentConstants(Unifier.Engine engine) {
         Equation eq = new Equation(a, b);
-        UnifyResult result = Unifier.unify(List.of(eq));
+        UnifyResult result = Unifier.unify(List.of(eq), engine);
         assertFalse(result.isSuccess(), "Unification of different constants should fail");
         assertTrue(result.getSubstitution().entrySet().isEmpty(),
                 "Substitution should remain empty after failure");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: X = a and a = X; 		
 	// Result: Should map X->a
-    void testVariableToConstant() {
-        UnifyResult result1 = Unifier.unify(List.of(new Equation(x, a)));
+    void testVariableToConstant(Unifier.Engine engine) {
+        UnifyResult result1 = Unifier.unify(List.of(new Equation(x, a)), engine);
         assertBinding(result1, x, a);
 	// Ensure only one binding
         assertEquals(1, result1.getSubstitution().entrySet().size());
 
-        UnifyResult result2 = Unifier.unify(List.of(new Equation(a, x)));
+        UnifyResult result2 = Unifier.unify(List.of(new Equation(a, x)), engine);
         assertBinding(result2, x, a);
         assertEquals(1, result2.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: X = Y; 		
 	// Result: Should map X->Y and Y remains unbound
-    void testVariableToVariable() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(x, y)));
+    void testVariableToVariable(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(x, y)), engine);
         assertBinding(result, x, y);
         assertEquals(1, result.getSubstitution().entrySet().size(),
                 "Only one binding expected");
@@ -101,45 +109,50 @@ class UnifierTest {
                 "Y should remain unbound and map to itself");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: f(X) = f(a,b); 		
 	// Result: Should fail due to arity mismatch
-    void testFunctionArityMismatch() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(f_x, f_ab)));
+    void testFunctionArityMismatch(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_x, f_ab)), engine);
         assertFalse(result.isSuccess(), "Arity mismatch should cause failure");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: f(X) = g(Y)		
 	// Result: Should fail due to name mismatch
-    void testFunctionNameMismatch() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(f_x, g_y)));
+    void testFunctionNameMismatch(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_x, g_y)), engine);
         assertFalse(result.isSuccess(), "Function name mismatch should cause failure");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: f(a,X) = f(a,b)		
 	// Result: Should bind X->b
-    void testSimpleFunctionUnification() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(f_ax, f_ab)));
+    void testSimpleFunctionUnification(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_ax, f_ab)), engine);
         assertBinding(result, x, b);
         assertEquals(1, result.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: f(g(X)) = f(Y)		
 	// Result: Should bind Y->g(X)
-    void testNestedFunctionUnification() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(f_g_x, f_y)));
+    void testNestedFunctionUnification(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_g_x, f_y)), engine);
         assertBinding(result, y, g_x);
         assertEquals(1, result.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: f(g(X), X) = f(Y, a)		
 	// Result: Should bind X->a then Y->g(a)
-    void testNestedFunctionWithMultipleArgs() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(f_g_x_x, f_y_a)));
+    void testNestedFunctionWithMultipleArgs(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_g_x_x, f_y_a)), engine);
 	// First binding: X->a
         assertBinding(result, x, a);
 	// After applying X->a, g(X) becomes g(a)
@@ -147,50 +160,54 @@ class UnifierTest {
         assertEquals(2, result.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: X = f(X)		
 	// Result: Should fail occurs-check
-    void testOccursCheck() {
-        UnifyResult result = Unifier.unify(List.of(new Equation(x, f_x)));
+    void testOccursCheck(Unifier.Engine engine) {
+        UnifyResult result = Unifier.unify(List.of(new Equation(x, f_x)), engine);
         assertFalse(result.isSuccess(), "Occurs-check should prevent circular binding");
         assertTrue(result.getSubstitution().entrySet().isEmpty(),
                 "No bindings should be produced on failure");
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests: X=Y, Y=a		
 	// Result: Should bind X->a and Y->a
-    void testMultipleEquationsConsistent() {
+    void testMultipleEquationsConsistent(Unifier.Engine engine) {
         UnifyResult result = Unifier.unify(List.of(
                 new Equation(x, y),
                 new Equation(y, a)
-        ));
+        ), engine);
         assertBinding(result, x, a);
         assertBinding(result, y, a);
         assertEquals(2, result.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests order independence: a=Y, X=Y		
 	// Result: Should bind Y->a and X->a
-    void testMultipleEquationsOrderIndependence() {
+    void testMultipleEquationsOrderIndependence(Unifier.Engine engine) {
         UnifyResult result = Unifier.unify(List.of(
                 new Equation(a, y),
                 new Equation(x, y)
-        ));
+        ), engine);
         assertBinding(result, y, a);
         assertBinding(result, x, a);
         assertEquals(2, result.getSubstitution().entrySet().size());
     }
 
-    @Test
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
 	// Tests conflicting equations: X=a, b=X		
 	// Result: Should fail
-    void testMultipleEquationsConflict() {
+    void testMultipleEquationsConflict(Unifier.Engine engine) {
         UnifyResult result = Unifier.unify(List.of(
                 new Equation(x, a),
                 new Equation(b, x)
-        ));
+        ), engine);
         assertFalse(result.isSuccess(), "Conflicting equations should fail");
         assertTrue(result.getSubstitution().entrySet().isEmpty(),
                 "No bindings should remain after failure");
@@ -211,4 +228,95 @@ class UnifierTest {
                 "Trace should list current substitution");
     }
 
-}
\ No newline at end of file
+    @Test
+	// Tests trace levels for f(a,X)=f(a,b)
+	// Result: OFF records nothing, RULES omits the per-step context
+    void testTraceLevels() {
+        Equation eq = new Equation(f_ax, f_ab);
+        UnifyResult off = Unifier.unify(List.of(eq), TraceLevel.OFF);
+        assertBinding(off, x, b);
+        assertTrue(off.getTrace().isEmpty(), "OFF should record no trace");
+        assertTrue(off.getEvents().isEmpty(), "OFF should record no events");
+
+        UnifyResult rules = Unifier.unify(List.of(eq), TraceLevel.RULES);
+        assertBinding(rules, x, b);
+        assertEquals(TraceEvent.Rule.DECOMPOSE, rules.getEvents().get(0).rule());
+        assertTrue(rules.getTrace().stream().noneMatch(s -> s.contains("Remaining equations:")),
+                "RULES should not list remaining equations");
+        assertEquals("Unification completed successfully.",
+                rules.getTrace().get(rules.getTrace().size() - 1));
+    }
+
+    @Test
+	// Tests: f(a,X) = f(a,b), g(Y) = g(b) with trace level FULL
+	// Result: Every step should list the equations pending before it, in queue order
+    void testFullTraceRecordsRemainingEquations() {
+        Equation first = new Equation(f_ax, f_ab);
+        Equation second = new Equation(g_y, new Function("g", b));
+        UnifyResult result = Unifier.unify(List.of(first, second), TraceLevel.FULL);
+        assertTrue(result.isSuccess());
+        List<TraceEvent> events = result.getEvents();
+        assertEquals(List.of(first, second), events.get(0).remaining());
+        assertEquals(List.of(new Equation(x, b), new Equation(a, a), second), events.get(1).remaining());
+        assertEquals(List.of(new Equation(a, a), second), events.get(2).remaining());
+        assertEquals(List.of(second), events.get(3).remaining());
+        assertEquals("[" + second + "]", events.get(3).remaining().toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Unifier.OccursCheck.class)
+	// Tests: X = f(X) twice, and f(g(X), X) = f(Y, a)
+	// Result: Cyclic input should fail and terminate, acyclic input should unify
+    void testOccursCheckPolicies(Unifier.OccursCheck policy) {
+        Unifier.Options options = Unifier.Options.DEFAULT.withOccursCheck(policy);
+        UnifyResult cyclic = Unifier.unify(List.of(new Equation(x, f_x), new Equation(x, f_x)), options);
+        assertFalse(cyclic.isSuccess(), "Occurs-check should reject a cyclic binding");
+        assertTrue(cyclic.getTrace().get(cyclic.getTrace().size() - 1).contains("Occurs-check failed"));
+
+        UnifyResult result = Unifier.unify(List.of(new Equation(f_g_x_x, f_y_a)), options);
+        assertBinding(result, x, a);
+        assertBinding(result, y, new Function("g", a));
+    }
+
+    @Test
+	// Tests: f(X1..Xn) = f(g(X0,X0)..g(Xn-1,Xn-1)) with n = 64
+	// Result: Union-find engine should succeed on the exponential-sharing family
+    void testUnionFindExponentialFamily() {
+        int n = 64;
+        Term[] left = new Term[n];
+        Term[] right = new Term[n];
+        for (int i = 1; i <= n; i++) {
+            Variable previous = new Variable("X" + (i - 1));
+            left[i - 1] = new Variable("X" + i);
+            right[i - 1] = new Function("g", previous, previous);
+        }
+        UnifyResult result = Unifier.unify(
+                List.of(new Equation(new Function("f", left), new Function("f", right))),
+                Unifier.Engine.UNION_FIND);
+        assertTrue(result.isSuccess(), "Exponential family should unify");
+        assertEquals(n, result.getSubstitution().entrySet().size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Unifier.Engine.class)
+	// Tests: f(f(...f(X, Y)...)) = f(f(...f(a, g(X))...)) nested 10000 deep, without trace
+	// Result: Should bind X->a and Y->g(a) without overflowing the stack
+    void testDeepTerms(Unifier.Engine engine) {
+        int depth = 10_000;
+        Term left = new Function("f", x, y);
+        Term right = new Function("f", a, new Function("g", x));
+        for (int i = 0; i < depth; i++) {
+            left = new Function("f", left, b);
+            right = new Function("f", right, b);
+        }
+        UnifyResult result = Unifier.unify(List.of(new Equation(left, right)), engine, TraceLevel.OFF);
+        assertTrue(result.isSuccess());
+        assertEquals(a, result.getSubstitution().lookup(x));
+        assertEquals(new Function("g", a), result.getSubstitution().lookup(y));
+        Term solved = result.getSubstitution().apply(left);
+        assertEquals(solved, result.getSubstitution().apply(right));
+        assertEquals(depth + 3, solved.depth());
+        assertTrue(solved.toString().startsWith("f(f(f(") && solved.toString().endsWith(",b)"));
+    }
+
+}
@@ -0,0 +1,43 @@
+import com.github.geje1017.logic.VariantTable;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantTableTest {
+
+    @Test
+	// Tests: Inserting p(X,Y) and then its variant p(U,V), then looking up p(A,A)
+	// Result: The variant should find the first entry and its representative, p(A,A) nothing
+    void testDeduplicatesVariants() {
+        VariantTable<String> table = new VariantTable<>();
+        Term first = new Function("p", new Variable("X"), new Variable("Y"));
+        Term variant = new Function("p", new Variable("U"), new Variable("V"));
+        assertNull(table.putIfAbsent(first, "first"));
+        assertEquals("first", table.putIfAbsent(variant, "second"));
+        assertEquals("first", table.get(variant));
+        assertSame(first, table.representative(variant));
+        assertNull(table.get(new Function("p", new Variable("A"), new Variable("A"))));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+	// Tests: Many threads tabling q(Xi, f(Yi)) and q(Xi, Xi) for their own variables
+	// Result: Each variant class should be computed exactly once
+    void testConcurrentComputeIfAbsent() {
+        VariantTable<Integer> table = new VariantTable<>();
+        AtomicInteger computed = new AtomicInteger();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            Variable x = new Variable("X" + i);
+            Term goal = i % 2 == 0
+                    ? new Function("q", x, new Function("f", new Variable("Y" + i)))
+                    : new Function("q", x, x);
+            table.computeIfAbsent(goal, t -> computed.incrementAndGet());
+        });
+        assertEquals(2, table.size());
+        assertEquals(2, computed.get());
+    }
+}
@@ -0,0 +1,44 @@
+import com.github.geje1017.logic.Variants;
+import com.github.geje1017.term.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariantsTest {
+
+    private final Variable x = new Variable("X");
+    private final Variable y = new Variable("Y");
+    private final Variable u = new Variable("U");
+    private final Variable v = new Variable("V");
+    private final Constant a = new Constant("a");
+
+    @Test
+	// Tests: f(X,g(Y),X,a) against f(U,g(V),U,a)
+	// Result: Should be variants with equal variant hashes
+    void testRenamedTermsAreVariants() {
+        Term s = new Function("f", x, new Function("g", y), x, a);
+        Term t = new Function("f", u, new Function("g", v), u, a);
+        assertTrue(Variants.isVariant(s, t));
+        assertTrue(Variants.isVariant(t, s));
+        assertEquals(Variants.variantHash(s), Variants.variantHash(t));
+    }
+
+    @Test
+	// Tests: f(X,X) against f(U,V), f(X,Y) against f(U,U), and f(X,a) against f(a,X)
+	// Result: None should be variants, since renamings must be bijective and keep constants
+    void testNonVariants() {
+        assertFalse(Variants.isVariant(new Function("f", x, x), new Function("f", u, v)));
+        assertFalse(Variants.isVariant(new Function("f", x, y), new Function("f", u, u)));
+        assertFalse(Variants.isVariant(new Function("f", x, a), new Function("f", a, x)));
+        assertNotEquals(Variants.variantHash(new Function("f", x, x)), Variants.variantHash(new Function("f", u, v)));
+    }
+
+    @Test
+	// Tests: g(X,Y) against g(Y,X), and the ground terms h(a) against h(a)
+	// Result: Swapped variables and equal ground terms should be variants
+    void testSwappedAndGround() {
+        assertTrue(Variants.isVariant(new Function("g", x, y), new Function("g", y, x)));
+        assertTrue(Variants.isVariant(new Function("h", a), new Function("h", a)));
+        assertEquals(new Function("h", a).hashCode(), Variants.variantHash(new Function("h", a)));
+    }
+}